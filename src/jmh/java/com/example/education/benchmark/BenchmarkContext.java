@@ -0,0 +1,81 @@
+package com.example.education.benchmark;
+
+import com.example.education.EducationSystemApplication;
+import com.example.education.entity.College;
+import com.example.education.entity.Department;
+import com.example.education.entity.Student;
+import com.example.education.service.DepartmentService;
+import com.example.education.service.StudentService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Boots the application (without the web server) against a private in-memory H2 database
+// and seeds it with 'datasetSize' students spread over the departments from data.sql
+final class BenchmarkContext {
+
+    static final long[] DEPARTMENT_IDS = {201, 202, 203, 204, 205};
+
+    private static final int SEED_CHUNK = 10_000;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(EducationSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run( // Command line arguments, so they take precedence over application.properties
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.education=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+    }
+
+    // An empty department in the first seeded college, for rows a benchmark inserts and deletes again
+    static long newDepartment(DepartmentService departmentService) {
+        College college = new College();
+        college.setCollegeId(101L);
+        Department department = new Department();
+        department.setName("Bench Department");
+        department.setCode("BENCH" + SEQUENCE.incrementAndGet());
+        department.setCollege(college);
+        return departmentService.saveDepartment(department).getDepartmentId();
+    }
+
+    // Returns the ids of the seeded students
+    static List<Long> seedStudents(StudentService studentService, int datasetSize) {
+        List<Long> ids = new ArrayList<>(datasetSize);
+        for (int offset = 0; offset < datasetSize; offset += SEED_CHUNK) {
+            List<Student> saved = studentService.saveAllStudents(newStudents(Math.min(SEED_CHUNK, datasetSize - offset)));
+            saved.forEach(s -> ids.add(s.getStudentId()));
+        }
+        return ids;
+    }
+
+    // Unsaved students with unique emails, round-robin over the seeded departments
+    static List<Student> newStudents(int count) {
+        return newStudents(count, 0);
+    }
+
+    // Unsaved students with unique emails, all in 'departmentId' (0: round-robin over the seeded departments)
+    static List<Student> newStudents(int count, long departmentId) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long n = SEQUENCE.incrementAndGet();
+            Department department = new Department();
+            department.setDepartmentId(departmentId != 0 ? departmentId : DEPARTMENT_IDS[(int) (n % DEPARTMENT_IDS.length)]);
+            Student student = new Student();
+            student.setName("Bench Student " + n);
+            student.setEmail("bench." + n + "@example.com");
+            student.setDepartment(department);
+            students.add(student);
+        }
+        return students;
+    }
+}
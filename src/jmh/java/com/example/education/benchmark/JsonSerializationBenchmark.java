@@ -0,0 +1,46 @@
+package com.example.education.benchmark;
+
+import com.example.education.dto.KeysetPage;
+import com.example.education.dto.StudentView;
+import com.example.education.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Serialization cost of a list response, isolated from the query that produced it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private KeysetPage<StudentView> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        StudentService studentService = context.getBean(StudentService.class);
+        BenchmarkContext.seedStudents(studentService, pageSize);
+        objectMapper = context.getBean(ObjectMapper.class); // the mapper Spring MVC uses for responses
+        page = studentService.getStudentsPage(null, pageSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serializeStudentPage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.education.benchmark;
+
+import com.example.education.entity.Student;
+import com.example.education.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Single-row PATCH of a random seeded student (RowPatcher's single UPDATE plus the read-back)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentPatchBenchmark {
+
+    @Param("10000")
+    public int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private List<Long> studentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        studentService = context.getBean(StudentService.class);
+        studentIds = BenchmarkContext.seedStudents(studentService, datasetSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Student patchStudent() {
+        Long studentId = studentIds.get(ThreadLocalRandom.current().nextInt(studentIds.size()));
+        Student patch = new Student();
+        patch.setName("Patched " + ThreadLocalRandom.current().nextInt(1_000_000));
+        return studentService.patchStudent(studentId, patch, null, true);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.education.benchmark;
+
+import com.example.education.dto.StudentView;
+import com.example.education.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Read paths of StudentServiceImpl and the repository projections behind them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentReadBenchmark {
+
+    @Param("10000")
+    public int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private List<Long> studentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        studentService = context.getBean(StudentService.class);
+        studentIds = BenchmarkContext.seedStudents(studentService, datasetSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public StudentView getStudentById() {
+        return studentService.getStudentById(randomStudentId());
+    }
+
+    @Benchmark
+    public List<StudentView> getStudentsByDepartmentId() {
+        long[] departments = BenchmarkContext.DEPARTMENT_IDS;
+        return studentService.getStudentsByDepartmentId(departments[ThreadLocalRandom.current().nextInt(departments.length)]);
+    }
+
+    private Long randomStudentId() {
+        return studentIds.get(ThreadLocalRandom.current().nextInt(studentIds.size()));
+    }
+}
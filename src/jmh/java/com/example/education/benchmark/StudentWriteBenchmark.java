@@ -0,0 +1,63 @@
+package com.example.education.benchmark;
+
+import com.example.education.entity.Student;
+import com.example.education.service.DepartmentService;
+import com.example.education.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Batch insert at several batch sizes. Inserted rows go to a department of their own and are deleted after each
+// iteration, so every iteration writes into a table of the same size (datasetSize seeded rows).
+// Single-row updates are in StudentPatchBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentWriteBenchmark {
+
+    @Param("10000")
+    public int datasetSize;
+
+    @Param({"100", "1000", "10000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private long insertDepartmentId;
+    private List<Student> nextBatch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        studentService = context.getBean(StudentService.class);
+        BenchmarkContext.seedStudents(studentService, datasetSize);
+        insertDepartmentId = BenchmarkContext.newDepartment(context.getBean(DepartmentService.class));
+    }
+
+    // Building the request payload is not part of the measured save
+    @Setup(Level.Invocation)
+    public void prepareBatch() {
+        nextBatch = BenchmarkContext.newStudents(batchSize, insertDepartmentId);
+    }
+
+    // One set-based DELETE; keeps the table (and its indexes) from growing across iterations
+    @TearDown(Level.Iteration)
+    public void deleteInserted() {
+        studentService.deleteStudentsByDepartmentId(insertDepartmentId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Student> saveAllStudents() {
+        return studentService.saveAllStudents(nextBatch);
+    }
+}
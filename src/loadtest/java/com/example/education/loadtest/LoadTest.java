@@ -0,0 +1,321 @@
+package com.example.education.loadtest;
+
+import com.example.education.EducationSystemApplication;
+import com.example.education.entity.Department;
+import com.example.education.entity.Student;
+import com.example.education.entity.Teacher;
+import com.example.education.service.StudentService;
+import com.example.education.service.TeacherService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator for the REST layer.
+ *
+ * Starts the application on a random port, seeds it, then drives a weighted mix of requests from
+ * a fixed number of clients at a fixed total rate. Every request has an intended send time on a
+ * fixed schedule and its latency is measured from that time, not from when it was actually sent,
+ * so a stalled server is charged for the requests that queued up behind the stall (coordinated
+ * omission correction, as in wrk2). Service time (actual send to response) is recorded alongside.
+ *
+ * Writes one HdrHistogram percentile distribution per operation and a summary.json with
+ * throughput and p50/p99/p999 per operation to the output directory.
+ */
+public class LoadTest {
+
+    private static final long[] DEPARTMENT_IDS = {201, 202, 203, 204, 205};
+    private static final int SEED_CHUNK = 10_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final List<Long> studentIds;
+    private final List<Long> teacherIds;
+    private final Operation[] schedule; // Weighted operations, one slot per unit of weight
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    LoadTest(LoadTestOptions options, ObjectMapper objectMapper, int port, List<Long> studentIds, List<Long> teacherIds) {
+        this.options = options;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = "http://localhost:" + port;
+        this.studentIds = studentIds;
+        this.teacherIds = teacherIds;
+        this.schedule = options.mix().entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Operation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        // Command line arguments, so they take precedence over application.properties
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.education=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"));
+        if (options.virtualThreads()) {
+            if (Runtime.version().feature() < 21) {
+                System.out.println("WARNING: virtual threads need Java 21+, this JVM runs requests on platform threads");
+            }
+            applicationArgs.add("--spring.threads.virtual.enabled=true");
+            applicationArgs.add("--education.db-bulkhead.enabled=true");
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EducationSystemApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(applicationArgs.toArray(String[]::new))) {
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            List<Long> studentIds = seedStudents(context.getBean(StudentService.class), options.datasetSize());
+            List<Long> teacherIds = seedTeachers(context.getBean(TeacherService.class), Math.max(1, options.datasetSize() / 10));
+            System.out.printf("Seeded %d students and %d teachers, server on port %d%n", studentIds.size(), teacherIds.size(), port);
+
+            LoadTest loadTest = new LoadTest(options, context.getBean(ObjectMapper.class), port, studentIds, teacherIds);
+            loadTest.writeReport(loadTest.run());
+        }
+    }
+
+    private Map<Operation, Stats> run() throws Exception {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) * options.clients() / options.rate(); // Per-client schedule
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        System.out.printf("Running %d clients at %d req/s: %ds warmup, %ds measured%n",
+                options.clients(), options.rate(), options.warmupSeconds(), options.durationSeconds());
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.clients());
+        try {
+            List<Future<Map<Operation, Stats>>> clients = new ArrayList<>();
+            for (int i = 0; i < options.clients(); i++) {
+                long offset = intervalNanos * i / options.clients(); // Stagger clients evenly within one interval
+                clients.add(executor.submit(() -> runClient(start + offset, intervalNanos, measureFrom, end)));
+            }
+
+            Map<Operation, Stats> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, Stats>> client : clients) {
+                client.get().forEach((op, stats) -> merged.computeIfAbsent(op, o -> new Stats()).add(stats));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Operation, Stats> runClient(long firstSend, long intervalNanos, long measureFrom, long end) {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long intended = firstSend; intended < end; intended += intervalNanos) {
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            boolean failed;
+            try {
+                HttpResponse<Void> response = httpClient.send(request(operation, random), HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long completed = System.nanoTime();
+
+            if (intended >= measureFrom) {
+                stats.computeIfAbsent(operation, o -> new Stats()).record(completed - intended, completed - now, failed);
+            }
+        }
+        return stats;
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+        return switch (operation) {
+            case STUDENT_BY_ID -> get("/students/" + randomId(studentIds, random));
+            case STUDENTS_BY_DEPARTMENT -> get("/students/department/" + randomDepartmentId(random));
+            case STUDENTS_PAGE -> get("/students?after=" + randomId(studentIds, random) + "&limit=50");
+            case STUDENT_SEARCH -> get("/students/search?q=student%20" + random.nextInt(1, 1000));
+            case TEACHER_BY_ID -> get("/teachers/" + randomId(teacherIds, random));
+            case STUDENT_PATCH -> {
+                Map<String, Object> patch = Map.of(
+                        "name", "Load Student " + random.nextInt(1_000_000),
+                        "department", Map.of("departmentId", randomDepartmentId(random)));
+                yield json("/students/" + randomId(studentIds, random), "PATCH", patch);
+            }
+            case STUDENT_BATCH -> {
+                List<Map<String, Object>> batch = new ArrayList<>(options.batchSize());
+                for (int i = 0; i < options.batchSize(); i++) {
+                    long n = emailSequence.incrementAndGet();
+                    batch.add(Map.of(
+                            "name", "Load Student " + n,
+                            "email", "load.batch." + n + "@example.com",
+                            "department", Map.of("departmentId", randomDepartmentId(random))));
+                }
+                yield json("/students/batch", "POST", batch);
+            }
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest json(String path, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+    }
+
+    private void writeReport(Map<Operation, Stats> results) throws IOException {
+        Files.createDirectories(options.outputDirectory());
+        Map<String, Object> operations = new LinkedHashMap<>();
+        System.out.printf("%n%-24s %10s %8s %10s %10s %10s %10s%n", "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+
+        for (Operation operation : Operation.values()) {
+            Stats stats = results.get(operation);
+            if (stats == null) {
+                continue;
+            }
+            double throughput = (double) stats.latency.getTotalCount() / options.durationSeconds();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", stats.latency.getTotalCount());
+            summary.put("errors", stats.errors);
+            summary.put("throughputPerSecond", throughput);
+            summary.put("latencyMillis", percentiles(stats.latency));
+            summary.put("serviceTimeMillis", percentiles(stats.serviceTime));
+            operations.put(operation.reportName(), summary);
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(options.outputDirectory().resolve(operation.reportName() + ".hgrm")))) {
+                stats.latency.outputPercentileDistribution(out, 1_000_000.0); // Nanoseconds to milliseconds
+            }
+            System.out.printf("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", operation.reportName(), stats.latency.getTotalCount(),
+                    stats.errors, throughput, millis(stats.latency, 50.0), millis(stats.latency, 99.0), millis(stats.latency, 99.9));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", options.rate());
+        settings.put("clients", options.clients());
+        settings.put("warmupSeconds", options.warmupSeconds());
+        settings.put("durationSeconds", options.durationSeconds());
+        settings.put("datasetSize", options.datasetSize());
+        settings.put("batchSize", options.batchSize());
+        settings.put("virtualThreads", options.virtualThreads());
+        settings.put("javaVersion", Runtime.version().feature());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((op, weight) -> mix.put(op.reportName(), weight));
+        settings.put("mix", mix);
+        report.put("options", settings);
+        report.put("operations", operations);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(options.outputDirectory().resolve("summary.json").toFile(), report);
+        System.out.println("Report written to " + options.outputDirectory().toAbsolutePath());
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", millis(histogram, 50.0));
+        percentiles.put("p99", millis(histogram, 99.0));
+        percentiles.put("p999", millis(histogram, 99.9));
+        percentiles.put("max", histogram.getMaxValue() / 1_000_000.0);
+        percentiles.put("mean", histogram.getMean() / 1_000_000.0);
+        return percentiles;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    private static long randomId(List<Long> ids, ThreadLocalRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static long randomDepartmentId(ThreadLocalRandom random) {
+        return DEPARTMENT_IDS[random.nextInt(DEPARTMENT_IDS.length)];
+    }
+
+    private static List<Long> seedStudents(StudentService studentService, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int offset = 0; offset < count; offset += SEED_CHUNK) {
+            List<Student> chunk = new ArrayList<>();
+            for (int i = offset; i < Math.min(count, offset + SEED_CHUNK); i++) {
+                Student student = new Student();
+                student.setName("Load Student " + i);
+                student.setEmail("load.seed." + i + "@example.com");
+                student.setDepartment(department(i));
+                chunk.add(student);
+            }
+            studentService.saveAllStudents(chunk).forEach(s -> ids.add(s.getStudentId()));
+        }
+        return ids;
+    }
+
+    private static List<Long> seedTeachers(TeacherService teacherService, int count) {
+        List<Teacher> teachers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Teacher teacher = new Teacher();
+            teacher.setName("Load Teacher " + i);
+            teacher.setDegree("Ph.D.");
+            teacher.setDepartment(department(i));
+            teachers.add(teacher);
+        }
+        return teacherService.saveAllTeachers(teachers).stream().map(Teacher::getTeacherId).toList();
+    }
+
+    private static Department department(int i) {
+        Department department = new Department();
+        department.setDepartmentId(DEPARTMENT_IDS[i % DEPARTMENT_IDS.length]);
+        return department;
+    }
+
+    // Per-client results for one operation, merged once the run is over
+    private static final class Stats {
+        private final Histogram latency = new Histogram(3);     // From intended send time
+        private final Histogram serviceTime = new Histogram(3); // From actual send time
+        private long errors;
+
+        void record(long latencyNanos, long serviceTimeNanos, boolean failed) {
+            latency.recordValue(latencyNanos);
+            serviceTime.recordValue(serviceTimeNanos);
+            if (failed) {
+                errors++;
+            }
+        }
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            serviceTime.add(other.serviceTime);
+            errors += other.errors;
+        }
+    }
+}
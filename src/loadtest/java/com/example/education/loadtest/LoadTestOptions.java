@@ -0,0 +1,80 @@
+package com.example.education.loadtest;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Command line options, e.g. --rate=500 --clients=16 --duration=60 --mix=student-by-id=70,student-patch=30
+// Compare execution models by running the same options with --virtual-threads=false and =true
+record LoadTestOptions(
+        int rate,                       // Total target requests per second across all clients
+        int clients,                    // Concurrent connections, each with its own fixed schedule
+        int warmupSeconds,              // Requests in this window are sent but not recorded
+        int durationSeconds,            // Measured window
+        int datasetSize,                // Students (and a tenth as many teachers) seeded before the run
+        int batchSize,                  // Rows per POST /students/batch
+        Map<Operation, Integer> mix,    // Relative weight of each operation
+        boolean virtualThreads,         // Run the server in the prod execution mode (virtual threads + DB bulkhead)
+        Path outputDirectory) {
+
+    static final String DEFAULT_MIX = "student-by-id=40,students-by-department=10,students-page=15,student-search=15,"
+            + "teacher-by-id=10,student-patch=8,student-batch=2";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                intValue(values, "rate", 200),
+                intValue(values, "clients", 8),
+                intValue(values, "warmup", 10),
+                intValue(values, "duration", 30),
+                intValue(values, "dataset-size", 10_000),
+                intValue(values, "batch-size", 100),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                Path.of(values.getOrDefault("output", "target/loadtest")));
+        values.keySet().removeAll(List.of("rate", "clients", "warmup", "duration", "dataset-size", "batch-size", "mix", "virtual-threads", "output"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate() < options.clients()) {
+            throw new IllegalArgumentException("rate must be at least the number of clients");
+        }
+        return options;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        int parsed = value == null ? defaultValue : Integer.parseInt(value);
+        if (parsed < 0 || (parsed == 0 && !name.equals("warmup"))) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return parsed;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                weights.put(Operation.fromName(parts[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("mix must contain at least one operation with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.education.loadtest;
+
+import java.util.Arrays;
+
+// The requests the load generator can issue; names are used in --mix and in the report
+enum Operation {
+    STUDENT_BY_ID("student-by-id"),                   // GET /students/{id}
+    STUDENTS_BY_DEPARTMENT("students-by-department"), // GET /students/department/{departmentId}
+    STUDENTS_PAGE("students-page"),                   // GET /students?after={id}&limit=50
+    STUDENT_SEARCH("student-search"),                 // GET /students/search?q=...
+    TEACHER_BY_ID("teacher-by-id"),                   // GET /teachers/{id}
+    STUDENT_PATCH("student-patch"),                   // PATCH /students/{id}
+    STUDENT_BATCH("student-batch");                   // POST /students/batch
+
+    private final String reportName;
+
+    Operation(String reportName) {
+        this.reportName = reportName;
+    }
+
+    String reportName() {
+        return reportName;
+    }
+
+    static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(op -> op.reportName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + name
+                        + " (expected one of " + Arrays.stream(values()).map(Operation::reportName).toList() + ")"));
+    }
+}
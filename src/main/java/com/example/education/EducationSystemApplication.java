@@ -2,8 +2,10 @@ package com.example.education;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication // Combines @SpringBootConfiguration, @EnableAutoConfiguration, @ComponentScan
+@EnableScheduling // Runs the periodic headcount reconciliation (StatsServiceImpl.reconcile)
 public class EducationSystemApplication {
 
     public static void main(String[] args) {
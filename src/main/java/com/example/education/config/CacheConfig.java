@@ -0,0 +1,88 @@
+package com.example.education.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Reference data: colleges and departments are tiny, read on nearly every student/teacher write
+    // and rarely change, so they are kept in-process instead of hitting the database each time
+    public static final String COLLEGES = "colleges";
+    public static final String DEPARTMENTS = "departments";
+
+    // Point lookups on the login/search paths. "Not found" results are cached too (for a shorter time),
+    // so repeated probes for unknown emails or names do not reach the database every time.
+    public static final String STUDENTS_BY_EMAIL = "studentsByEmail";
+    public static final String STUDENTS_BY_NAME = "studentsByName";
+    public static final String TEACHERS_BY_NAME = "teachersByName";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${education.cache.reference-data.max-size:10000}") long referenceDataMaxSize,
+            @Value("${education.cache.reference-data.ttl:10m}") Duration referenceDataTtl,
+            @Value("${education.cache.lookups.max-size:100000}") long lookupsMaxSize,
+            @Value("${education.cache.lookups.ttl:5m}") Duration lookupsTtl,
+            @Value("${education.cache.lookups.negative-ttl:30s}") Duration lookupsNegativeTtl) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.registerCustomCache(COLLEGES, referenceDataCache(referenceDataMaxSize, referenceDataTtl));
+        caffeineCacheManager.registerCustomCache(DEPARTMENTS, referenceDataCache(referenceDataMaxSize, referenceDataTtl));
+        for (String lookupCacheName : List.of(STUDENTS_BY_EMAIL, STUDENTS_BY_NAME, TEACHERS_BY_NAME)) {
+            caffeineCacheManager.registerCustomCache(lookupCacheName,
+                    lookupCache(lookupsMaxSize, lookupsTtl, lookupsNegativeTtl));
+        }
+        // Only the caches registered above exist; a typo in a cache name fails instead of creating an unbounded cache
+        caffeineCacheManager.setCacheNames(List.of());
+        // Evictions issued inside a @Transactional method are applied after commit, so a concurrent
+        // reader cannot re-populate the cache with the old row between eviction and commit
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    private static Cache<Object, Object> referenceDataCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats() // hit/miss/eviction counters, exposed on GET /info/caches
+                .build();
+    }
+
+    // Negative results get the shorter TTL: Spring stores an empty Optional as NullValue,
+    // and name lookups return an empty list when nothing matches
+    private static Cache<Object, Object> lookupCache(long maxSize, Duration ttl, Duration negativeTtl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Object value, long currentTime) {
+                        boolean negative = value instanceof NullValue || (value instanceof Collection<?> c && c.isEmpty());
+                        return (negative ? negativeTtl : ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration; // reads do not extend the lifetime
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.education.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Wraps the pooled DataSource in a BulkheadDataSource when education.db-bulkhead.enabled=true
+// (on in the 'prod' profile together with virtual threads, see application-prod.properties)
+@Configuration
+@ConditionalOnProperty(name = "education.db-bulkhead.enabled", havingValue = "true")
+public class DataSourceBulkheadConfig {
+
+    // Static: a BeanPostProcessor must be created before the beans it processes
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment) {
+        int maxConcurrent = environment.getProperty("education.db-bulkhead.max-concurrent", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = DurationStyle.detectAndParse(
+                environment.getProperty("education.db-bulkhead.acquire-timeout", "2s"));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // education.db.bulkhead.available / .queued next to the hikaricp.connections.* pool metrics
+    @Bean
+    public MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                Gauge.builder("education.db.bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                        .description("Free database slots in the bulkhead")
+                        .register(registry);
+                Gauge.builder("education.db.bulkhead.queued", bulkhead, BulkheadDataSource::getQueueLength)
+                        .description("Threads waiting for a database slot")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.education.config;
+
+import com.example.education.tracing.QueryBudgetFilter;
+import com.example.education.tracing.StatementCounter;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig {
+
+    // Adds a 'handler' tag (e.g. StudentController.getStudentById) to the http.server.requests timer,
+    // so every controller method gets its own latency series on GET /actuator/prometheus
+    @Bean
+    public ServerRequestObservationConvention handlerTaggingObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    // Lets StatementCounter see every SQL statement Hibernate prepares (per-request query budgets)
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    // Extends the query budgets to the part of async requests (e.g. GET /students/export) run on the task executor
+    @Bean
+    public WebMvcConfigurer asyncQueryBudgetConfigurer(QueryBudgetFilter queryBudgetFilter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(queryBudgetFilter.asyncInterceptor());
+            }
+        };
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return KeyValue.of("handler", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return KeyValue.of("handler", "none"); // Static resources, 404s, actuator endpoints
+    }
+}
@@ -1,22 +1,62 @@
 package com.example.education.controller;
 
+import com.example.education.dto.TraceView;
 import com.example.education.profile.EnvironmentService;
+import com.example.education.tracing.TraceRecorder;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/info")
 public class AppInfoController {
 
     private final EnvironmentService environmentService;
+    private final CacheManager cacheManager;
+    private final TraceRecorder traceRecorder;
 
-    public AppInfoController(EnvironmentService environmentService) {
+    public AppInfoController(EnvironmentService environmentService, CacheManager cacheManager, TraceRecorder traceRecorder) {
         this.environmentService = environmentService;
+        this.cacheManager = cacheManager;
+        this.traceRecorder = traceRecorder;
     }
 
     @GetMapping("/environment")
     public String getEnvironment() {
         return environmentService.getEnvironmentMessage();
     }
-}
\ No newline at end of file
+
+    // Hit/miss/eviction counters of the in-process caches, to verify hit ratios under load
+    @GetMapping("/caches")
+    public Map<String, Map<String, Object>> getCacheStatistics() {
+        Map<String, Map<String, Object>> statistics = new LinkedHashMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                CacheStats stats = nativeCache.stats();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("size", nativeCache.estimatedSize());
+                entry.put("hits", stats.hitCount());
+                entry.put("misses", stats.missCount());
+                entry.put("hitRatio", stats.hitRate());
+                entry.put("evictions", stats.evictionCount());
+                statistics.put(cacheName, entry);
+            }
+        }
+        return statistics;
+    }
+
+    // Slowest of the last education.tracing.capacity requests, with controller/service/repository spans
+    @GetMapping("/traces")
+    public List<TraceView> getSlowestTraces(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return traceRecorder.slowest(Math.max(1, Math.min(limit, traceRecorder.getCapacity())));
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.education.controller;
 
+import com.example.education.dto.CollegeOverview;
+import com.example.education.dto.KeysetPage;
 import com.example.education.entity.College;
 import com.example.education.service.CollegeService;
+import com.example.education.tracing.QueryBudget;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,48 +24,79 @@ public class CollegeController {
     }
 
     @PostMapping // Endpoint to save a single college
+    @QueryBudget(2)
     public ResponseEntity<College> saveCollege(@Valid @RequestBody College college) {
         College savedCollege = collegeService.saveCollege(college);
         return new ResponseEntity<>(savedCollege, HttpStatus.CREATED); // Returns 201 Created
     }
 
     @PostMapping("/batch") // NEW: Endpoint to save multiple colleges
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch, see QueryBudget.UNBOUNDED
     public ResponseEntity<List<College>> saveAllColleges(@Valid @RequestBody List<College> colleges) {
         List<College> savedColleges = collegeService.saveAllColleges(colleges);
         return new ResponseEntity<>(savedColleges, HttpStatus.CREATED); // Returns 201 Created
     }
 
     @GetMapping
+    @QueryBudget(1)
+    public ResponseEntity<KeysetPage<College>> getCollegesPage(
+            @RequestParam(value = "after", required = false) Long afterCollegeId,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        KeysetPage<College> page = collegeService.getCollegesPage(afterCollegeId, limit);
+        return ResponseEntity.ok().eTag(ETags.of(page)).body(page);
+    }
+
+    @GetMapping(params = "all=true") // Unbounded listing, explicit opt-in only: GET /colleges?all=true
+    @QueryBudget(1)
     public ResponseEntity<List<College>> getAllColleges() {
         List<College> colleges = collegeService.getAllColleges();
-        return ResponseEntity.ok(colleges); // Returns 200 OK
+        return ResponseEntity.ok().eTag(ETags.of(colleges)).body(colleges); // Returns 200 OK
     }
 
     @GetMapping("/{id}")
+    @QueryBudget(1)
     public ResponseEntity<College> getCollegeById(@PathVariable("id") Long collegeId) {
         College college = collegeService.getCollegeById(collegeId);
-        return ResponseEntity.ok(college);
+        return ResponseEntity.ok().eTag(ETags.of(college)).body(college);
+    }
+
+    // College dashboard in one round-trip instead of one call per department
+    @GetMapping("/{id}/overview")
+    @QueryBudget(4) // College (usually cached) + departments, teachers and student counts
+    public ResponseEntity<CollegeOverview> getCollegeOverview(@PathVariable("id") Long collegeId) {
+        CollegeOverview overview = collegeService.getCollegeOverview(collegeId);
+        return ResponseEntity.ok(overview);
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<College> getCollegeByName(@PathVariable("name") String name) {
-        College college = collegeService.getCollegeByName(name);
-        return ResponseEntity.ok(college);
+    @QueryBudget(1)
+    public ResponseEntity<List<College>> getCollegesByName(@PathVariable("name") String name) {
+        List<College> colleges = collegeService.getCollegesByName(name);
+        return ResponseEntity.ok().eTag(ETags.of(colleges)).body(colleges);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<College> updateCollege(@PathVariable("id") Long collegeId, @Valid @RequestBody College college) {
-        College updatedCollege = collegeService.updateCollege(collegeId, college);
-        return ResponseEntity.ok(updatedCollege);
+    @QueryBudget(2)
+    public ResponseEntity<College> updateCollege(@PathVariable("id") Long collegeId, @Valid @RequestBody College college,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = ReturnPreference.PREFER, required = false) String prefer) {
+        boolean wantsBody = ReturnPreference.wantsBody(prefer);
+        College updatedCollege = collegeService.updateCollege(collegeId, college, ETags.expectedVersion(ifMatch), wantsBody);
+        return ReturnPreference.respond(updatedCollege, wantsBody);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<College> patchCollege(@PathVariable("id") Long collegeId, @RequestBody College college) {
-        College patchedCollege = collegeService.patchCollege(collegeId, college);
-        return ResponseEntity.ok(patchedCollege);
+    @QueryBudget(2)
+    public ResponseEntity<College> patchCollege(@PathVariable("id") Long collegeId, @RequestBody College college,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = ReturnPreference.PREFER, required = false) String prefer) {
+        boolean wantsBody = ReturnPreference.wantsBody(prefer);
+        College patchedCollege = collegeService.patchCollege(collegeId, college, ETags.expectedVersion(ifMatch), wantsBody);
+        return ReturnPreference.respond(patchedCollege, wantsBody);
     }
 
     @DeleteMapping("/{id}")
+    @QueryBudget(6) // College (usually cached) + one set-based DELETE per table: students, teachers, stats, departments, college
     public ResponseEntity<College> deleteCollege(@PathVariable("id") Long collegeId) {
         College deletedCollege = collegeService.deleteCollege(collegeId);
         return ResponseEntity.ok(deletedCollege); // Or ResponseEntity.noContent().build() for 204
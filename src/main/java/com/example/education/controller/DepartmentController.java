@@ -1,8 +1,12 @@
 package com.example.education.controller;
 
+import com.example.education.dto.DepartmentView;
+import com.example.education.dto.KeysetPage;
 import com.example.education.entity.Department;
 import com.example.education.service.DepartmentService;
+import com.example.education.tracing.QueryBudget;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,60 +24,85 @@ public class DepartmentController {
     }
 
     @PostMapping
+    @QueryBudget(4) // College (usually cached) + id block (1 in 50) + INSERT + the department's counter row
     public ResponseEntity<Department> saveDepartment(@Valid @RequestBody Department department) {
         Department savedDepartment = departmentService.saveDepartment(department);
         return new ResponseEntity<>(savedDepartment, HttpStatus.CREATED);
     }
 
     @PostMapping("/batch") // NEW: Endpoint to save multiple departments
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch, see QueryBudget.UNBOUNDED
     public ResponseEntity<List<Department>> saveAllDepartments(@Valid @RequestBody List<Department> departments) {
         List<Department> savedDepartments = departmentService.saveAllDepartments(departments);
         return new ResponseEntity<>(savedDepartments, HttpStatus.CREATED);
     }
 
     @GetMapping
-    public ResponseEntity<List<Department>> getAllDepartments() {
-        List<Department> departments = departmentService.getAllDepartments();
-        return ResponseEntity.ok(departments);
+    @QueryBudget(1)
+    public ResponseEntity<KeysetPage<DepartmentView>> getDepartmentsPage(
+            @RequestParam(value = "after", required = false) Long afterDepartmentId,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        KeysetPage<DepartmentView> page = departmentService.getDepartmentsPage(afterDepartmentId, limit);
+        return ResponseEntity.ok().eTag(ETags.of(page)).body(page);
+    }
+
+    @GetMapping(params = "all=true") // Unbounded listing, explicit opt-in only: GET /departments?all=true
+    @QueryBudget(1)
+    public ResponseEntity<List<DepartmentView>> getAllDepartments() {
+        List<DepartmentView> departments = departmentService.getAllDepartments();
+        return ResponseEntity.ok().eTag(ETags.of(departments)).body(departments);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Department> getDepartmentById(@PathVariable("id") Long departmentId) {
-        Department department = departmentService.getDepartmentById(departmentId);
-        return ResponseEntity.ok(department);
+    @QueryBudget(1)
+    public ResponseEntity<DepartmentView> getDepartmentById(@PathVariable("id") Long departmentId) {
+        DepartmentView department = departmentService.getDepartmentById(departmentId);
+        return ResponseEntity.ok().eTag(ETags.of(department)).body(department);
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<Department> getDepartmentByName(@PathVariable("name") String name) {
-        Department department = departmentService.getDepartmentByName(name);
-        return ResponseEntity.ok(department);
+    @QueryBudget(1)
+    public ResponseEntity<List<Department>> getDepartmentsByName(@PathVariable("name") String name) {
+        List<Department> departments = departmentService.getDepartmentsByName(name);
+        return ResponseEntity.ok(departments);
     }
 
     @GetMapping("/code/{code}")
+    @QueryBudget(1)
     public ResponseEntity<Department> getDepartmentByCode(@PathVariable("code") String code) {
         Department department = departmentService.getDepartmentByCode(code);
         return ResponseEntity.ok(department);
     }
 
     @GetMapping("/college/{collegeId}")
-    public ResponseEntity<List<Department>> getDepartmentsByCollegeId(@PathVariable("collegeId") Long collegeId) {
-        List<Department> departments = departmentService.getDepartmentsByCollegeId(collegeId);
-        return ResponseEntity.ok(departments);
+    @QueryBudget(1)
+    public ResponseEntity<List<DepartmentView>> getDepartmentsByCollegeId(@PathVariable("collegeId") Long collegeId) {
+        List<DepartmentView> departments = departmentService.getDepartmentsByCollegeId(collegeId);
+        return ResponseEntity.ok().eTag(ETags.of(departments)).body(departments);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Department> updateDepartment(@PathVariable("id") Long departmentId, @Valid @RequestBody Department department) {
-        Department updatedDepartment = departmentService.updateDepartment(departmentId, department);
-        return ResponseEntity.ok(updatedDepartment);
+    @QueryBudget(4) // +1 counter row update when the college changes
+    public ResponseEntity<Department> updateDepartment(@PathVariable("id") Long departmentId, @Valid @RequestBody Department department,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = ReturnPreference.PREFER, required = false) String prefer) {
+        boolean wantsBody = ReturnPreference.wantsBody(prefer);
+        Department updatedDepartment = departmentService.updateDepartment(departmentId, department, ETags.expectedVersion(ifMatch), wantsBody);
+        return ReturnPreference.respond(updatedDepartment, wantsBody);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Department> patchDepartment(@PathVariable("id") Long departmentId, @RequestBody Department department) {
-        Department patchedDepartment = departmentService.patchDepartment(departmentId, department);
-        return ResponseEntity.ok(patchedDepartment);
+    @QueryBudget(4) // +1 counter row update when the college changes
+    public ResponseEntity<Department> patchDepartment(@PathVariable("id") Long departmentId, @RequestBody Department department,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = ReturnPreference.PREFER, required = false) String prefer) {
+        boolean wantsBody = ReturnPreference.wantsBody(prefer);
+        Department patchedDepartment = departmentService.patchDepartment(departmentId, department, ETags.expectedVersion(ifMatch), wantsBody);
+        return ReturnPreference.respond(patchedDepartment, wantsBody);
     }
 
     @DeleteMapping("/{id}")
+    @QueryBudget(3)
     public ResponseEntity<Department> deleteDepartment(@PathVariable("id") Long departmentId) {
         Department deletedDepartment = departmentService.deleteDepartment(departmentId);
         return ResponseEntity.ok(deletedDepartment);
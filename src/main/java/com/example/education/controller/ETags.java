@@ -0,0 +1,80 @@
+package com.example.education.controller;
+
+import com.example.education.dto.KeysetPage;
+import com.example.education.entity.Versioned;
+import com.example.education.exception.PreconditionFailedException;
+
+import java.util.List;
+
+// Strong entity tags computed from @Version columns (see Versioned) instead of from the response body.
+// Conditional GETs need no extra code: for a 200 ResponseEntity carrying an ETag, Spring MVC compares it with
+// If-None-Match and answers 304 Not Modified before the body is serialized.
+final class ETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    // "3" for a college at version 3; "3.1" for a student at version 3 whose department is at version 1
+    static String of(Versioned representation) {
+        long[] key = representation.versionKey();
+        StringBuilder tag = new StringBuilder().append('"').append(key[1]);
+        for (int i = 2; i < key.length; i++) {
+            tag.append('.').append(key[i]);
+        }
+        return tag.append('"').toString();
+    }
+
+    // 64-bit FNV-1a hash over the id and versions of every item, so adding, removing or editing a row changes it
+    static String of(List<? extends Versioned> items) {
+        return quote(hash(items, FNV_OFFSET));
+    }
+
+    // Also covers the cursor: it appears when a row is added after the last item of the page
+    static String of(KeysetPage<? extends Versioned> page) {
+        long nextCursor = page.getNextCursor() == null ? -1 : page.getNextCursor();
+        return quote(mix(hash(page.getItems(), FNV_OFFSET), nextCursor));
+    }
+
+    // Own version named by an If-Match header, or null when there is no precondition (no header or "*").
+    // Accepts the tags produced by of(Versioned); anything else (weak, list, foreign) can never match.
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String value = tag.substring(1, tag.length() - 1);
+            int end = value.indexOf('.');
+            try {
+                return Long.parseLong(end < 0 ? value : value.substring(0, end));
+            } catch (NumberFormatException e) {
+                // Falls through to the failed precondition below
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current entity tag");
+    }
+
+    private static long hash(List<? extends Versioned> items, long hash) {
+        for (Versioned item : items) {
+            for (long value : item.versionKey()) {
+                hash = mix(hash, value);
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static String quote(long hash) {
+        return '"' + Long.toHexString(hash) + '"';
+    }
+}
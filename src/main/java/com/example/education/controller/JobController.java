@@ -0,0 +1,28 @@
+package com.example.education.controller;
+
+import com.example.education.dto.JobStatus;
+import com.example.education.service.IngestionService;
+import com.example.education.tracing.QueryBudget;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Progress of the asynchronous batch jobs started by POST /students/batch/async and /teachers/batch/async
+@RestController
+@RequestMapping("/jobs")
+public class JobController {
+
+    private final IngestionService ingestionService;
+
+    public JobController(IngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    @GetMapping("/{id}")
+    @QueryBudget(0) // Served from memory
+    public ResponseEntity<JobStatus> getJob(@PathVariable("id") String jobId) {
+        return ResponseEntity.ok(ingestionService.getJob(jobId));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.education.controller;
+
+import com.example.education.entity.Versioned;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Locale;
+
+// RFC 7240 "Prefer: return=minimal" on PUT/PATCH: the client does not need the updated row back, so the
+// service skips the read after its single-statement UPDATE and the response is 204 No Content
+final class ReturnPreference {
+
+    static final String PREFER = "Prefer";
+
+    private ReturnPreference() {
+    }
+
+    static boolean wantsBody(String prefer) {
+        return prefer == null || !prefer.replace(" ", "").toLowerCase(Locale.ROOT).contains("return=minimal");
+    }
+
+    // Both responses carry the entity tag of the updated row, so the client can send its next If-Match without a GET.
+    // Without a body, 'updated' holds just the ids and versions the tag is computed from (see the services).
+    static <T extends Versioned> ResponseEntity<T> respond(T updated, boolean wantsBody) {
+        String eTag = ETags.of(updated);
+        if (!wantsBody) {
+            return ResponseEntity.noContent().eTag(eTag).header("Preference-Applied", "return=minimal").build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(updated);
+    }
+}
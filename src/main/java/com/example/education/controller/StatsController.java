@@ -0,0 +1,42 @@
+package com.example.education.controller;
+
+import com.example.education.dto.CollegeStats;
+import com.example.education.dto.StatsSummary;
+import com.example.education.entity.DepartmentStats;
+import com.example.education.service.StatsService;
+import com.example.education.tracing.QueryBudget;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Headcounts served from the persisted department_stats counters
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping
+    @QueryBudget(1)
+    public ResponseEntity<StatsSummary> getStats() {
+        return ResponseEntity.ok(statsService.getStats());
+    }
+
+    @GetMapping("/colleges/{id}")
+    @QueryBudget(2) // Second query only for a college without departments (existence check)
+    public ResponseEntity<CollegeStats> getCollegeStats(@PathVariable("id") Long collegeId) {
+        return ResponseEntity.ok(statsService.getCollegeStats(collegeId));
+    }
+
+    @GetMapping("/departments/{id}")
+    @QueryBudget(1)
+    public ResponseEntity<DepartmentStats> getDepartmentStats(@PathVariable("id") Long departmentId) {
+        return ResponseEntity.ok(statsService.getDepartmentStats(departmentId));
+    }
+}
@@ -1,12 +1,35 @@
 package com.example.education.controller;
 
+import com.example.education.dto.AffectedRows;
+import com.example.education.dto.BatchResult;
+import com.example.education.dto.ImportResult;
+import com.example.education.dto.JobStatus;
+import com.example.education.dto.KeysetPage;
+import com.example.education.dto.StudentView;
+import com.example.education.dto.UpsertResult;
+import com.example.education.dto.NameSuggestion;
+import com.example.education.dto.ReassignRequest;
 import com.example.education.entity.Student;
+import com.example.education.service.NameSearchService;
 import com.example.education.service.StudentService;
+import com.example.education.tracing.QueryBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -14,68 +37,190 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final ObjectMapper objectMapper; // Spring's configured mapper, reused for NDJSON export lines
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, ObjectMapper objectMapper) {
         this.studentService = studentService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
+    @QueryBudget(4) // Department (usually cached) + id block (1 in 50) + INSERT + the department's counter row
     public ResponseEntity<Student> saveStudent(@Valid @RequestBody Student student) {
         Student savedStudent = studentService.saveStudent(student);
         return new ResponseEntity<>(savedStudent, HttpStatus.CREATED);
     }
 
     @PostMapping("/batch") // NEW: Endpoint to save multiple students
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch, see QueryBudget.UNBOUNDED
     public ResponseEntity<List<Student>> saveAllStudents(@Valid @RequestBody List<Student> students) {
         List<Student> savedStudents = studentService.saveAllStudents(students);
         return new ResponseEntity<>(savedStudents, HttpStatus.CREATED);
     }
 
+    // CSV upload (header row: name,email,departmentId or departmentCode), read and committed chunk by chunk
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the file
+    public ResponseEntity<ImportResult> importStudents(InputStream csv) {
+        ImportResult result = studentService.importStudents(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        return ResponseEntity.ok(result);
+    }
+
+    // Nightly sync: insert or update keyed on email in one MERGE statement, no lookup first; 201 if the email was new
+    @PutMapping("/by-email")
+    @QueryBudget(6) // Department (usually cached) + id block (1 in 50) + MERGE + two counter rows + read-back
+    public ResponseEntity<Student> upsertStudentByEmail(@Valid @RequestBody Student student) {
+        Student savedStudent = studentService.upsertStudentByEmail(student);
+        return new ResponseEntity<>(savedStudent, savedStudent.getVersion() == 0 ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    // Batch variant: one MERGE per 1000 rows in a single transaction; reports inserted vs. updated rows
+    @PutMapping("/by-email/batch")
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch
+    public ResponseEntity<UpsertResult> upsertStudentsByEmail(@RequestBody List<Student> students) {
+        UpsertResult result = studentService.upsertStudentsByEmail(students); // Rows are validated one by one, not with @Valid
+        return ResponseEntity.ok(result);
+    }
+
+    // Partial success: every valid row is saved and each row gets a status (CREATED with its id, or FAILED with the reason)
+    @PostMapping(value = "/batch", params = "partial=true")
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch
+    public ResponseEntity<BatchResult> saveAllStudentsPartially(@RequestBody List<Student> students) {
+        BatchResult result = studentService.saveAllStudentsPartially(students); // Rows are validated one by one, not with @Valid
+        return ResponseEntity.ok(result);
+    }
+
+    // Same payload as /batch, but the array is parsed while it arrives and committed in chunks; per-row and per-chunk report
+    @PostMapping(value = "/batch/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch
+    public ResponseEntity<ImportResult> streamStudents(InputStream json) {
+        ImportResult result = studentService.streamStudents(json);
+        return ResponseEntity.ok(result);
+    }
+
+    // Large uploads: 202 Accepted at once, rows are written in chunks in the background; poll Location for progress
+    @PostMapping("/batch/async")
+    @QueryBudget(0)
+    public ResponseEntity<JobStatus> submitStudents(@RequestBody List<Student> students) {
+        JobStatus job = studentService.submitStudents(students); // Rows are validated by the job, failures are reported per row
+        return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getJobId())).body(job);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
-        List<Student> students = studentService.getAllStudents();
-        return ResponseEntity.ok(students);
+    @QueryBudget(1)
+    public ResponseEntity<KeysetPage<StudentView>> getStudentsPage(
+            @RequestParam(value = "after", required = false) Long afterStudentId,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        KeysetPage<StudentView> page = studentService.getStudentsPage(afterStudentId, limit);
+        return ResponseEntity.ok().eTag(ETags.of(page)).body(page);
+    }
+
+    @GetMapping(params = "all=true") // Unbounded listing, explicit opt-in only: GET /students?all=true
+    @QueryBudget(1)
+    public ResponseEntity<List<StudentView>> getAllStudents() {
+        List<StudentView> students = studentService.getAllStudents();
+        return ResponseEntity.ok().eTag(ETags.of(students)).body(students);
+    }
+
+    // Streams every student as newline-delimited JSON while rows are read from the database,
+    // so the first byte goes out immediately and memory does not grow with the table
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @QueryBudget(1) // Checked when the streaming body has run, see QueryBudgetFilter.asyncInterceptor()
+    public ResponseEntity<StreamingResponseBody> exportStudents() {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            studentService.exportStudents(student -> writeLine(out, student));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object row) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // e.g. client disconnected: abort the export
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Student> getStudentById(@PathVariable("id") Long studentId) {
-        Student student = studentService.getStudentById(studentId);
-        return ResponseEntity.ok(student);
+    @QueryBudget(1)
+    public ResponseEntity<StudentView> getStudentById(@PathVariable("id") Long studentId) {
+        StudentView student = studentService.getStudentById(studentId);
+        return ResponseEntity.ok().eTag(ETags.of(student)).body(student);
+    }
+
+    @GetMapping("/search") // Typeahead: GET /students/search?q=ali&limit=10
+    @QueryBudget(0)
+    public ResponseEntity<List<NameSuggestion>> searchStudents(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "" + NameSearchService.DEFAULT_LIMIT) int limit) {
+        List<NameSuggestion> suggestions = studentService.searchStudents(query, limit);
+        return ResponseEntity.ok(suggestions);
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<Student> getStudentByName(@PathVariable("name") String name) {
-        Student student = studentService.getStudentByName(name);
-        return ResponseEntity.ok(student);
+    @QueryBudget(1)
+    public ResponseEntity<List<Student>> getStudentsByName(@PathVariable("name") String name) {
+        List<Student> students = studentService.getStudentsByName(name);
+        return ResponseEntity.ok(students);
     }
 
     @GetMapping("/email/{email}")
+    @QueryBudget(1)
     public ResponseEntity<Student> getStudentByEmail(@PathVariable("email") String email) {
         Student student = studentService.getStudentByEmail(email);
         return ResponseEntity.ok(student);
     }
 
     @GetMapping("/department/{departmentId}")
-    public ResponseEntity<List<Student>> getStudentsByDepartmentId(@PathVariable("departmentId") Long departmentId) {
-        List<Student> students = studentService.getStudentsByDepartmentId(departmentId);
-        return ResponseEntity.ok(students);
+    @QueryBudget(1)
+    public ResponseEntity<List<StudentView>> getStudentsByDepartmentId(@PathVariable("departmentId") Long departmentId) {
+        List<StudentView> students = studentService.getStudentsByDepartmentId(departmentId);
+        return ResponseEntity.ok().eTag(ETags.of(students)).body(students);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Student> updateStudent(@PathVariable("id") Long studentId, @Valid @RequestBody Student student) {
-        Student updatedStudent = studentService.updateStudent(studentId, student);
-        return ResponseEntity.ok(updatedStudent);
+    @QueryBudget(5) // +2 counter updates when the department changes
+    public ResponseEntity<Student> updateStudent(@PathVariable("id") Long studentId, @Valid @RequestBody Student student,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = ReturnPreference.PREFER, required = false) String prefer) {
+        boolean wantsBody = ReturnPreference.wantsBody(prefer);
+        Student updatedStudent = studentService.updateStudent(studentId, student, ETags.expectedVersion(ifMatch), wantsBody);
+        return ReturnPreference.respond(updatedStudent, wantsBody);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Student> patchStudent(@PathVariable("id") Long studentId, @RequestBody Student student) {
-        Student patchedStudent = studentService.patchStudent(studentId, student);
-        return ResponseEntity.ok(patchedStudent);
+    @QueryBudget(5) // +2 counter updates when the department changes
+    public ResponseEntity<Student> patchStudent(@PathVariable("id") Long studentId, @RequestBody Student student,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = ReturnPreference.PREFER, required = false) String prefer) {
+        boolean wantsBody = ReturnPreference.wantsBody(prefer);
+        Student patchedStudent = studentService.patchStudent(studentId, student, ETags.expectedVersion(ifMatch), wantsBody);
+        return ReturnPreference.respond(patchedStudent, wantsBody);
     }
 
     @DeleteMapping("/{id}")
+    @QueryBudget(3)
     public ResponseEntity<Student> deleteStudent(@PathVariable("id") Long studentId) {
         Student deletedStudent = studentService.deleteStudent(studentId);
         return ResponseEntity.ok(deletedStudent);
     }
+
+    // Set-based: DELETE /students?departmentId=201 removes every student of the department in one statement
+    @DeleteMapping(params = "departmentId")
+    @QueryBudget(2) // The DELETE + the department's counter row
+    public ResponseEntity<AffectedRows> deleteStudentsByDepartmentId(@RequestParam("departmentId") Long departmentId) {
+        int deleted = studentService.deleteStudentsByDepartmentId(departmentId);
+        return ResponseEntity.ok(new AffectedRows(deleted));
+    }
+
+    // Set-based: moves every student of one department to another in one statement
+    @PostMapping("/reassign")
+    @QueryBudget(4) // Target department (usually cached) + the UPDATE + both counter rows
+    public ResponseEntity<AffectedRows> reassignStudents(@Valid @RequestBody ReassignRequest request) {
+        int moved = studentService.reassignStudents(request.getFromDepartmentId(), request.getToDepartmentId());
+        return ResponseEntity.ok(new AffectedRows(moved));
+    }
 }
\ No newline at end of file
@@ -1,12 +1,28 @@
 package com.example.education.controller;
 
+import com.example.education.dto.AffectedRows;
+import com.example.education.dto.BatchResult;
+import com.example.education.dto.ImportResult;
+import com.example.education.dto.JobStatus;
+import com.example.education.dto.KeysetPage;
+import com.example.education.dto.TeacherView;
+import com.example.education.dto.NameSuggestion;
+import com.example.education.dto.ReassignRequest;
 import com.example.education.entity.Teacher;
+import com.example.education.service.NameSearchService;
 import com.example.education.service.TeacherService;
+import com.example.education.tracing.QueryBudget;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -20,62 +36,144 @@ public class TeacherController {
     }
 
     @PostMapping
+    @QueryBudget(4)
     public ResponseEntity<Teacher> saveTeacher(@Valid @RequestBody Teacher teacher) {
         Teacher savedTeacher = teacherService.saveTeacher(teacher);
         return new ResponseEntity<>(savedTeacher, HttpStatus.CREATED);
     }
 
     @PostMapping("/batch") // NEW: Endpoint to save multiple teachers
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch, see QueryBudget.UNBOUNDED
     public ResponseEntity<List<Teacher>> saveAllTeachers(@Valid @RequestBody List<Teacher> teachers) {
         List<Teacher> savedTeachers = teacherService.saveAllTeachers(teachers);
         return new ResponseEntity<>(savedTeachers, HttpStatus.CREATED);
     }
 
+    // CSV upload (header row: name,degree,departmentId or departmentCode), read and committed chunk by chunk
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the file
+    public ResponseEntity<ImportResult> importTeachers(InputStream csv) {
+        ImportResult result = teacherService.importTeachers(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        return ResponseEntity.ok(result);
+    }
+
+    // Partial success: every valid row is saved and each row gets a status (CREATED with its id, or FAILED with the reason)
+    @PostMapping(value = "/batch", params = "partial=true")
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch
+    public ResponseEntity<BatchResult> saveAllTeachersPartially(@RequestBody List<Teacher> teachers) {
+        BatchResult result = teacherService.saveAllTeachersPartially(teachers); // Rows are validated one by one, not with @Valid
+        return ResponseEntity.ok(result);
+    }
+
+    // Same payload as /batch, but the array is parsed while it arrives and committed in chunks; per-row and per-chunk report
+    @PostMapping(value = "/batch/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @QueryBudget(QueryBudget.UNBOUNDED) // Grows with the batch
+    public ResponseEntity<ImportResult> streamTeachers(InputStream json) {
+        ImportResult result = teacherService.streamTeachers(json);
+        return ResponseEntity.ok(result);
+    }
+
+    // Large uploads: 202 Accepted at once, rows are written in chunks in the background; poll Location for progress
+    @PostMapping("/batch/async")
+    @QueryBudget(0)
+    public ResponseEntity<JobStatus> submitTeachers(@RequestBody List<Teacher> teachers) {
+        JobStatus job = teacherService.submitTeachers(teachers); // Rows are validated by the job, failures are reported per row
+        return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getJobId())).body(job);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Teacher>> getAllTeachers() {
-        List<Teacher> teachers = teacherService.getAllTeachers();
-        return ResponseEntity.ok(teachers);
+    @QueryBudget(1)
+    public ResponseEntity<KeysetPage<TeacherView>> getTeachersPage(
+            @RequestParam(value = "after", required = false) Long afterTeacherId,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        KeysetPage<TeacherView> page = teacherService.getTeachersPage(afterTeacherId, limit);
+        return ResponseEntity.ok().eTag(ETags.of(page)).body(page);
+    }
+
+    @GetMapping(params = "all=true") // Unbounded listing, explicit opt-in only: GET /teachers?all=true
+    @QueryBudget(1)
+    public ResponseEntity<List<TeacherView>> getAllTeachers() {
+        List<TeacherView> teachers = teacherService.getAllTeachers();
+        return ResponseEntity.ok().eTag(ETags.of(teachers)).body(teachers);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Teacher> getTeacherById(@PathVariable("id") Long teacherId) {
-        Teacher teacher = teacherService.getTeacherById(teacherId);
-        return ResponseEntity.ok(teacher);
+    @QueryBudget(1)
+    public ResponseEntity<TeacherView> getTeacherById(@PathVariable("id") Long teacherId) {
+        TeacherView teacher = teacherService.getTeacherById(teacherId);
+        return ResponseEntity.ok().eTag(ETags.of(teacher)).body(teacher);
+    }
+
+    @GetMapping("/search") // Typeahead: GET /teachers/search?q=ali&limit=10
+    @QueryBudget(0)
+    public ResponseEntity<List<NameSuggestion>> searchTeachers(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "" + NameSearchService.DEFAULT_LIMIT) int limit) {
+        List<NameSuggestion> suggestions = teacherService.searchTeachers(query, limit);
+        return ResponseEntity.ok(suggestions);
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<Teacher> getTeacherByName(@PathVariable("name") String name) {
-        Teacher teacher = teacherService.getTeacherByName(name);
-        return ResponseEntity.ok(teacher);
+    @QueryBudget(1)
+    public ResponseEntity<List<Teacher>> getTeachersByName(@PathVariable("name") String name) {
+        List<Teacher> teachers = teacherService.getTeachersByName(name);
+        return ResponseEntity.ok(teachers);
     }
 
     @GetMapping("/degree/{degree}")
+    @QueryBudget(1)
     public ResponseEntity<List<Teacher>> getTeachersByDegree(@PathVariable("degree") String degree) {
         List<Teacher> teachers = teacherService.getTeachersByDegree(degree);
         return ResponseEntity.ok(teachers);
     }
 
     @GetMapping("/department/{departmentId}")
-    public ResponseEntity<List<Teacher>> getTeachersByDepartmentId(@PathVariable("departmentId") Long departmentId) {
-        List<Teacher> teachers = teacherService.getTeachersByDepartmentId(departmentId);
-        return ResponseEntity.ok(teachers);
+    @QueryBudget(1)
+    public ResponseEntity<List<TeacherView>> getTeachersByDepartmentId(@PathVariable("departmentId") Long departmentId) {
+        List<TeacherView> teachers = teacherService.getTeachersByDepartmentId(departmentId);
+        return ResponseEntity.ok().eTag(ETags.of(teachers)).body(teachers);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Teacher> updateTeacher(@PathVariable("id") Long teacherId, @Valid @RequestBody Teacher teacher) {
-        Teacher updatedTeacher = teacherService.updateTeacher(teacherId, teacher);
-        return ResponseEntity.ok(updatedTeacher);
+    @QueryBudget(5) // +2 counter updates when the department changes
+    public ResponseEntity<Teacher> updateTeacher(@PathVariable("id") Long teacherId, @Valid @RequestBody Teacher teacher,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = ReturnPreference.PREFER, required = false) String prefer) {
+        boolean wantsBody = ReturnPreference.wantsBody(prefer);
+        Teacher updatedTeacher = teacherService.updateTeacher(teacherId, teacher, ETags.expectedVersion(ifMatch), wantsBody);
+        return ReturnPreference.respond(updatedTeacher, wantsBody);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Teacher> patchTeacher(@PathVariable("id") Long teacherId, @RequestBody Teacher teacher) {
-        Teacher patchedTeacher = teacherService.patchTeacher(teacherId, teacher);
-        return ResponseEntity.ok(patchedTeacher);
+    @QueryBudget(5) // +2 counter updates when the department changes
+    public ResponseEntity<Teacher> patchTeacher(@PathVariable("id") Long teacherId, @RequestBody Teacher teacher,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = ReturnPreference.PREFER, required = false) String prefer) {
+        boolean wantsBody = ReturnPreference.wantsBody(prefer);
+        Teacher patchedTeacher = teacherService.patchTeacher(teacherId, teacher, ETags.expectedVersion(ifMatch), wantsBody);
+        return ReturnPreference.respond(patchedTeacher, wantsBody);
     }
 
     @DeleteMapping("/{id}")
+    @QueryBudget(3)
     public ResponseEntity<Teacher> deleteTeacher(@PathVariable("id") Long teacherId) {
         Teacher deletedTeacher = teacherService.deleteTeacher(teacherId);
         return ResponseEntity.ok(deletedTeacher);
     }
+
+    // Set-based: DELETE /teachers?departmentId=201 removes every teacher of the department in one statement
+    @DeleteMapping(params = "departmentId")
+    @QueryBudget(2) // The DELETE + the department's counter row
+    public ResponseEntity<AffectedRows> deleteTeachersByDepartmentId(@RequestParam("departmentId") Long departmentId) {
+        int deleted = teacherService.deleteTeachersByDepartmentId(departmentId);
+        return ResponseEntity.ok(new AffectedRows(deleted));
+    }
+
+    // Set-based: moves every teacher of one department to another in one statement
+    @PostMapping("/reassign")
+    @QueryBudget(4) // Target department (usually cached) + the UPDATE + both counter rows
+    public ResponseEntity<AffectedRows> reassignTeachers(@Valid @RequestBody ReassignRequest request) {
+        int moved = teacherService.reassignTeachers(request.getFromDepartmentId(), request.getToDepartmentId());
+        return ResponseEntity.ok(new AffectedRows(moved));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Response of the set-based endpoints (bulk delete, reassign): how many rows the statement changed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AffectedRows {
+    private int affectedRows;
+}
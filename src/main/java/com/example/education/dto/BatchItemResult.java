@@ -0,0 +1,28 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one row of a partial-success batch: its 0-based position in the request, and either the id it
+// was saved with or the reason it was not
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    public enum Status { CREATED, FAILED }
+
+    private int index;
+    private Status status;
+    private Long id;
+    private String error;
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, Status.CREATED, id, null);
+    }
+
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, Status.FAILED, null, error);
+    }
+}
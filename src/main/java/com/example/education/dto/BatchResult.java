@@ -0,0 +1,17 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Response of POST /students/batch?partial=true: every valid row is saved, 'items' has one entry per request row
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+    private int savedRows;
+    private int failedRows;
+    private List<BatchItemResult> items;
+}
@@ -0,0 +1,17 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One committed chunk of a streamed import: the index of its first row, how many rows it held and saved,
+// and how long the write took
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkResult {
+    private int firstIndex;
+    private int rows;
+    private int savedRows;
+    private long elapsedMillis;
+}
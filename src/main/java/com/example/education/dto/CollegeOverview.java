@@ -0,0 +1,18 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Response of GET /colleges/{id}/overview: a college with its departments, their teachers and student counts
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollegeOverview {
+    private Long collegeId;
+    private String name;
+    private String address;
+    private List<DepartmentOverview> departments;
+}
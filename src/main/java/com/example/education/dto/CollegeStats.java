@@ -0,0 +1,16 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Headcount of one college, rolled up from its departments' counters
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollegeStats {
+    private Long collegeId;
+    private long departmentCount;
+    private long studentCount;
+    private long teacherCount;
+}
@@ -0,0 +1,19 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One department inside a CollegeOverview: its teachers and how many students it has
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentOverview {
+    private Long departmentId;
+    private String name;
+    private String code;
+    private long studentCount;
+    private List<TeacherView> teachers;
+}
@@ -0,0 +1,14 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Number of students per department, from one GROUP BY query (see StudentRepository.countByDepartmentForCollege)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentStudentCount {
+    private Long departmentId;
+    private long studentCount;
+}
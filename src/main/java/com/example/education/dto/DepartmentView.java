@@ -0,0 +1,36 @@
+package com.example.education.dto;
+
+import com.example.education.entity.Department;
+import com.example.education.entity.Versioned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Read-side shape of a department with the flattened college id/name (see StudentView)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentView implements Versioned {
+    private Long departmentId;
+    private String name;
+    private String code;
+    private Long collegeId;
+    private String collegeName;
+    private Long version;
+
+    @JsonIgnore // Only feeds the ETag: renaming the college changes this representation too
+    private Long collegeVersion;
+
+    // For departments that are already in memory (reference-data cache); college must be initialized
+    public static DepartmentView from(Department department) {
+        return new DepartmentView(department.getDepartmentId(), department.getName(), department.getCode(),
+                department.getCollege().getCollegeId(), department.getCollege().getName(),
+                department.getVersion(), department.getCollege().getVersion());
+    }
+
+    @Override
+    public long[] versionKey() {
+        return new long[]{departmentId, version, collegeVersion};
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Outcome of a streamed import (POST /students/import as CSV, POST /students/batch/stream as a JSON array).
+// Failure indexes count data rows from 0; 'failures' lists at most education.ingest.max-reported-failures rows,
+// 'failedRows' counts all of them. 'chunks' has one entry per committed chunk, in order.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private double rowsPerSecond;
+    private List<RowFailure> failures;
+    private List<ChunkResult> chunks;
+}
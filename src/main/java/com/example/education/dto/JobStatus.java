@@ -0,0 +1,31 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Progress of an asynchronous ingestion job, returned by POST /{entity}/batch/async and GET /jobs/{id}.
+// 'failures' lists at most education.ingest.max-reported-failures rows; 'failedRows' counts all of them.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatus {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, COMPLETED_WITH_FAILURES }
+
+    private String jobId;
+    private String entity;
+    private State state;
+    private long totalRows;
+    private long processedRows;
+    private long succeededRows;
+    private long failedRows;
+    private double rowsPerSecond; // Processed rows over the time since the first chunk started
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<RowFailure> failures;
+}
@@ -0,0 +1,41 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset (cursor) paginated listing.
+// Clients pass 'nextCursor' back as '?after=' to fetch the following page; it is null on the last page.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private Long nextCursor;
+    private int limit;
+
+    // Keeps client supplied page sizes within [1, MAX_LIMIT]
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // Cursor values start below every generated id, so a missing 'after' means "from the beginning"
+    public static long startAfter(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // Builds a page from rows fetched with 'limit + 1': the extra row only signals that another page exists.
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Long> idExtractor) {
+        if (rows.size() > limit) {
+            List<T> items = rows.subList(0, limit);
+            return new KeysetPage<>(items, idExtractor.apply(items.get(limit - 1)), limit);
+        }
+        return new KeysetPage<>(rows, null, limit);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Typeahead result: just enough for the UI to render the suggestion and fetch the full record by id
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameSuggestion {
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,18 @@
+package com.example.education.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body of POST /students/reassign and /teachers/reassign: moves every row of one department to another
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReassignRequest {
+    @NotNull(message = "Source department ID is required")
+    private Long fromDepartmentId;
+
+    @NotNull(message = "Target department ID is required")
+    private Long toDepartmentId;
+}
@@ -0,0 +1,14 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A row of a batch that was not saved: its 0-based position in the submitted list and the reason
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RowFailure {
+    private int index;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One timed call inside a traced request, e.g. "StudentServiceImpl.saveStudent" at depth 1
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpanView {
+    private String name;
+    private int depth; // 0 = controller, 1 = service, 2 = repository (deeper when services call each other)
+    private double offsetMillis; // Start relative to the start of the request
+    private double durationMillis;
+}
@@ -0,0 +1,18 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Response of GET /stats: overall headcount and the per-college rollups it is summed from
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsSummary {
+    private long departmentCount;
+    private long studentCount;
+    private long teacherCount;
+    private List<CollegeStats> colleges;
+}
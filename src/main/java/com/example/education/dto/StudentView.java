@@ -0,0 +1,29 @@
+package com.example.education.dto;
+
+import com.example.education.entity.Versioned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Read-side shape of a student: own columns plus the flattened department id/name.
+// Built directly by JPQL constructor expressions, so no entity, proxy or dirty-checking snapshot is created.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentView implements Versioned {
+    private Long studentId;
+    private String name;
+    private String email;
+    private Long departmentId;
+    private String departmentName;
+    private Long version;
+
+    @JsonIgnore // Only feeds the ETag: renaming the department changes this representation too
+    private Long departmentVersion;
+
+    @Override
+    public long[] versionKey() {
+        return new long[]{studentId, version, departmentVersion};
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.education.dto;
+
+import com.example.education.entity.Versioned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Read-side shape of a teacher with the flattened department id/name (see StudentView)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeacherView implements Versioned {
+    private Long teacherId;
+    private String name;
+    private String degree;
+    private Long departmentId;
+    private String departmentName;
+    private Long version;
+
+    @JsonIgnore // Only feeds the ETag: renaming the department changes this representation too
+    private Long departmentVersion;
+
+    @Override
+    public long[] versionKey() {
+        return new long[]{teacherId, version, departmentVersion};
+    }
+}
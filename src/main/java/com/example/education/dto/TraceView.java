@@ -0,0 +1,24 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+// A recorded request with its controller/service/repository spans, as returned by GET /info/traces
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TraceView {
+    private String method;
+    private String uri;
+    private int status;
+    private Instant startedAt;
+    private double totalMillis;
+    // Request time outside any controller span: filters, argument binding and response serialization
+    private double untracedMillis;
+    private int droppedSpans; // Spans beyond education.tracing.max-spans are counted but not recorded
+    private List<SpanView> spans;
+}
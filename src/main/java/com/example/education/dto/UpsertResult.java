@@ -0,0 +1,19 @@
+package com.example.education.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Response of PUT /students/by-email/batch: how many rows were new (inserted) and how many matched an existing
+// email (updated); rows that failed validation or the department check are skipped and listed in 'failures'
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpsertResult {
+    private int insertedRows;
+    private int updatedRows;
+    private int failedRows;
+    private List<RowFailure> failures;
+}
@@ -1,5 +1,7 @@
 package com.example.education.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -13,16 +15,33 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "college")
-public class College {
+@Table(name = "college", indexes = {
+        @Index(name = "idx_college_name_normalized", columnList = "name_normalized"),
+        @Index(name = "idx_college_address", columnList = "address")
+})
+public class College implements Versioned {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so inserts can be JDBC-batched (see Student.studentId)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "college_seq")
+    @SequenceGenerator(name = "college_seq", sequenceName = "college_seq", allocationSize = 50, initialValue = 1000)
     private Long collegeId;
 
+    // Optimistic lock and ETag source (see Student.version)
+    @Version
+    @Column(nullable = false, columnDefinition = Versioned.VERSION_COLUMN_DEFINITION)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "College name is required")
     @Size(min = 2, max = 100, message = "College name must be between 2 and 100 characters")
     private String name;
 
+    // Lower-cased, trimmed copy of 'name' maintained by the database; backs case-insensitive name lookups
+    @JsonIgnore
+    @Column(name = "name_normalized", insertable = false, updatable = false,
+            columnDefinition = Names.NORMALIZED_COLUMN_DEFINITION)
+    private String nameNormalized;
+
     @NotBlank(message = "College address is required")
     @Size(min = 5, max = 255, message = "College address must be between 5 and 255 characters")
     private String address;
@@ -32,4 +51,9 @@ public class College {
     // as it can lead to N+1 problems and bidirectional relationship complexities
     // unless carefully managed (e.g., using DTOs, @JsonManagedReference/@JsonBackReference).
     // The relationship is established via the @ManyToOne in Department.
-}
\ No newline at end of file
+
+    @Override
+    public long[] versionKey() {
+        return new long[]{Versioned.orZero(collegeId), Versioned.orZero(version)};
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.education.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -14,16 +16,34 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "department")
-public class Department {
+@Table(name = "department", indexes = {
+        @Index(name = "idx_department_name_normalized", columnList = "name_normalized"),
+        @Index(name = "idx_department_code", columnList = "code"),
+        @Index(name = "idx_department_college", columnList = "college_college_id")
+})
+public class Department implements Versioned {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so inserts can be JDBC-batched (see Student.studentId)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "department_seq")
+    @SequenceGenerator(name = "department_seq", sequenceName = "department_seq", allocationSize = 50, initialValue = 1000)
     private Long departmentId;
 
+    // Optimistic lock and ETag source (see Student.version)
+    @Version
+    @Column(nullable = false, columnDefinition = Versioned.VERSION_COLUMN_DEFINITION)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Department name is required")
     @Size(min = 2, max = 100, message = "Department name must be between 2 and 100 characters")
     private String name;
 
+    // Lower-cased, trimmed copy of 'name' maintained by the database; backs case-insensitive name lookups
+    @JsonIgnore
+    @Column(name = "name_normalized", insertable = false, updatable = false,
+            columnDefinition = Names.NORMALIZED_COLUMN_DEFINITION)
+    private String nameNormalized;
+
     @NotBlank(message = "Department code is required")
     @Size(min = 2, max = 10, message = "Department code must be between 2 and 10 characters")
     private String code;
@@ -34,4 +54,10 @@ public class Department {
     @JoinColumn(name = "college_college_id", nullable = false) // Foreign key column in 'department' table
     @NotNull(message = "Department must be associated with a College") // Validation: Must have a college
     private College college;
+
+    // Same key as the DepartmentView the GET endpoint tags; the college must be initialized (or null)
+    @Override
+    public long[] versionKey() {
+        return new long[]{Versioned.orZero(departmentId), Versioned.orZero(version), college != null ? Versioned.orZero(college.getVersion()) : 0};
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.education.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Persisted headcount of one department, kept up to date by the student/teacher writes
+// (see EnrollmentCounters) and recounted periodically by StatsServiceImpl.reconcile().
+// No foreign keys: the row is owned by the counters, not by the department's lifecycle.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "department_stats", indexes = {
+        @Index(name = "idx_department_stats_college", columnList = "college_id") // Per-college rollups
+})
+public class DepartmentStats {
+    @Id
+    private Long departmentId; // Same id as the department
+
+    @Column(name = "college_id", nullable = false)
+    private Long collegeId;
+
+    private long studentCount;
+
+    private long teacherCount;
+}
@@ -0,0 +1,31 @@
+package com.example.education.entity;
+
+import java.util.Locale;
+
+// Case-insensitive name matching.
+// Every entity keeps a database-generated 'name_normalized' column (indexed) next to 'name';
+// lookups normalize the search term in Java with the same rules and compare against that column.
+public final class Names {
+
+    // Column definition shared by the entities; must stay in sync with normalize() below
+    public static final String NORMALIZED_COLUMN_DEFINITION = "VARCHAR(100) GENERATED ALWAYS AS (LOWER(TRIM(name)))";
+
+    private Names() {
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        // H2's TRIM(name) strips only spaces, unlike String.trim() which also strips tabs and other control characters
+        int start = 0;
+        int end = name.length();
+        while (start < end && name.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && name.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return name.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+}
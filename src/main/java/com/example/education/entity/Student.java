@@ -1,5 +1,7 @@
 package com.example.education.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -15,16 +17,35 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "student")
-public class Student {
+@Table(name = "student", indexes = {
+        @Index(name = "idx_student_name_normalized", columnList = "name_normalized"),
+        @Index(name = "idx_student_department", columnList = "department_department_id")
+})
+public class Student implements Versioned {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY: ids are reserved in blocks of 50 without a round-trip per row,
+    // which lets Hibernate batch INSERT statements. Starts above the ids seeded by data.sql.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "student_seq", allocationSize = 50, initialValue = 1000)
     private Long studentId;
 
+    // Optimistic lock: every update runs 'WHERE version = ?' and bumps it; also the basis of the ETag.
+    // Read-only in JSON, clients name the version they edit with If-Match instead
+    @Version
+    @Column(nullable = false, columnDefinition = Versioned.VERSION_COLUMN_DEFINITION)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Student name is required")
     @Size(min = 2, max = 100, message = "Student name must be between 2 and 100 characters")
     private String name;
 
+    // Lower-cased, trimmed copy of 'name' maintained by the database; backs case-insensitive name lookups
+    @JsonIgnore
+    @Column(name = "name_normalized", insertable = false, updatable = false,
+            columnDefinition = Names.NORMALIZED_COLUMN_DEFINITION)
+    private String nameNormalized;
+
     @NotBlank(message = "Student email is required")
     @Email(message = "Email should be valid") // Validation: Email format
     @Column(unique = true) // Database constraint: email must be unique
@@ -36,4 +57,10 @@ public class Student {
     @JoinColumn(name = "department_department_id", nullable = false) // Foreign key column in 'student' table
     @NotNull(message = "Student must be associated with a Department") // Validation: Must have a department
     private Department department;
+
+    // Same key as the StudentView the GET endpoint tags; the department must be initialized (or null)
+    @Override
+    public long[] versionKey() {
+        return new long[]{Versioned.orZero(studentId), Versioned.orZero(version), department != null ? Versioned.orZero(department.getVersion()) : 0};
+    }
 }
\ No newline at end of file
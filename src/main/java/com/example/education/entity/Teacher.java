@@ -1,5 +1,7 @@
 package com.example.education.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -14,16 +16,34 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "teacher")
-public class Teacher {
+@Table(name = "teacher", indexes = {
+        @Index(name = "idx_teacher_name_normalized", columnList = "name_normalized"),
+        @Index(name = "idx_teacher_degree", columnList = "degree"),
+        @Index(name = "idx_teacher_department", columnList = "department_department_id")
+})
+public class Teacher implements Versioned {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so inserts can be JDBC-batched (see Student.studentId)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teacher_seq")
+    @SequenceGenerator(name = "teacher_seq", sequenceName = "teacher_seq", allocationSize = 50, initialValue = 1000)
     private Long teacherId;
 
+    // Optimistic lock and ETag source (see Student.version)
+    @Version
+    @Column(nullable = false, columnDefinition = Versioned.VERSION_COLUMN_DEFINITION)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Teacher name is required")
     @Size(min = 2, max = 100, message = "Teacher name must be between 2 and 100 characters")
     private String name;
 
+    // Lower-cased, trimmed copy of 'name' maintained by the database; backs case-insensitive name lookups
+    @JsonIgnore
+    @Column(name = "name_normalized", insertable = false, updatable = false,
+            columnDefinition = Names.NORMALIZED_COLUMN_DEFINITION)
+    private String nameNormalized;
+
     @NotBlank(message = "Teacher degree is required")
     @Size(min = 2, max = 50, message = "Teacher degree must be between 2 and 50 characters")
     private String degree; // e.g., "Ph.D. CS", "M.Tech ENTC"
@@ -34,4 +54,10 @@ public class Teacher {
     @JoinColumn(name = "department_department_id", nullable = false) // Foreign key column in 'teacher' table
     @NotNull(message = "Teacher must be associated with a Department") // Validation: Must have a department
     private Department department;
+
+    // Same key as the TeacherView the GET endpoint tags; the department must be initialized (or null)
+    @Override
+    public long[] versionKey() {
+        return new long[]{Versioned.orZero(teacherId), Versioned.orZero(version), department != null ? Versioned.orZero(department.getVersion()) : 0};
+    }
 }
\ No newline at end of file
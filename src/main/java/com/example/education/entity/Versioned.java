@@ -0,0 +1,18 @@
+package com.example.education.entity;
+
+// Representations whose HTTP entity tag is derived from @Version columns rather than from the serialized body
+// (see controller.ETags). Implemented by the read-side views and by entities returned as-is.
+public interface Versioned {
+
+    // Version columns shared by the entities: rows seeded by data.sql start at 0 like the ones Hibernate inserts
+    String VERSION_COLUMN_DEFINITION = "BIGINT DEFAULT 0";
+
+    // Primary key and @Version of the row itself, followed by the versions of the rows it embeds (e.g. the
+    // department whose name a StudentView carries), so that an edit to any of them changes the tag
+    long[] versionKey();
+
+    // Entities built in code (e.g. an unsaved row) may not have an id or version yet
+    static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.education.exception;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Client-facing wording for constraint violations. The driver's own message quotes SQL, constraint and index names
+// and the offending values, so it only goes to the log; responses get a fixed sentence naming the conflicting field.
+public final class ConstraintViolations {
+
+    // SQLSTATE class 23 codes (integrity constraint violation) as reported by H2
+    private static final String NOT_NULL = "23502";
+    private static final String CHILD_EXISTS = "23503";
+    private static final String UNIQUE = "23505";
+    private static final String PARENT_MISSING = "23506";
+
+    // The table and first column of the violated unique index, e.g. "... ON PUBLIC.STUDENT(EMAIL NULLS FIRST) ..."
+    private static final Pattern UNIQUE_COLUMN = Pattern.compile(" ON \\w+\\.(\\w+)\\((\\w+)");
+
+    private ConstraintViolations() {
+    }
+
+    // 'ex' is Spring's DataIntegrityViolationException or Hibernate's ConstraintViolationException (untranslated
+    // when thrown by a flush outside a repository, e.g. BatchInserter)
+    public static String describe(RuntimeException ex) {
+        SQLException sqlException = findSqlException(ex);
+        String sqlState = sqlException != null ? sqlException.getSQLState() : null;
+        if (UNIQUE.equals(sqlState)) {
+            Matcher matcher = UNIQUE_COLUMN.matcher(String.valueOf(sqlException.getMessage()));
+            if (matcher.find()) {
+                return "A " + matcher.group(1).toLowerCase(Locale.ROOT) + " with the same "
+                        + matcher.group(2).toLowerCase(Locale.ROOT) + " already exists";
+            }
+            return "A row with the same unique value already exists";
+        }
+        if (PARENT_MISSING.equals(sqlState)) {
+            return "A referenced row does not exist";
+        }
+        if (CHILD_EXISTS.equals(sqlState)) {
+            return "The row is still referenced by other rows";
+        }
+        if (NOT_NULL.equals(sqlState)) {
+            return "A required value is missing";
+        }
+        return "The data violates a database constraint";
+    }
+
+    private static SQLException findSqlException(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return sqlException;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.education.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+// No database connection slot became free within the bulkhead's acquire timeout; mapped to 503 Service Unavailable
+public class DatabaseBusyException extends SQLTransientConnectionException {
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
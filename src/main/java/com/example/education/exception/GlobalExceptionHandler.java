@@ -1,9 +1,18 @@
 package com.example.education.exception;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException; // For @Valid validation errors
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice; // Combines @ControllerAdvice and @ResponseBody
 import org.springframework.web.context.request.WebRequest; // For getting request details
@@ -15,6 +24,8 @@ import java.util.Map;
 @RestControllerAdvice // This annotation makes this class handle exceptions across all controllers
 public class GlobalExceptionHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     // Handles your custom ResourceNotFoundException
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorDetails> handleResourceNotFoundException(
@@ -29,6 +40,53 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    // If-Match named a version other than the current one: the client edited a stale copy
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorDetails> handlePreconditionFailedException(
+            PreconditionFailedException ex, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                HttpStatus.PRECONDITION_FAILED.value() // 412
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Another transaction updated the row between our read and our versioned UPDATE. With If-Match that is a
+    // failed precondition too; without it the client still learns its write lost the race (409)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "The resource was modified concurrently, reload it and retry",
+                request.getDescription(false),
+                status.value()
+        );
+        return new ResponseEntity<>(errorDetails, status);
+    }
+
+    // Constraint violations: a duplicate unique value, or a delete of a row that other rows still reference.
+    // The driver's message (SQL, constraint names, values) is logged; the client gets the conflicting field only
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    public ResponseEntity<ErrorDetails> handleDataIntegrityViolation(
+            RuntimeException ex, WebRequest request) {
+
+        logger.warn("Constraint violation on {}: {}", request.getDescription(false),
+                NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "The request conflicts with existing data: " + ConstraintViolations.describe(ex),
+                request.getDescription(false),
+                HttpStatus.CONFLICT.value() // 409
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
     // Handles validation errors thrown by @Valid annotation
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
@@ -43,6 +101,37 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST); // Returns 400 Bad Request
     }
 
+    // No database connection slot within the bulkhead's timeout (see BulkheadDataSource): 503 so clients retry later
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorDetails> handleConnectionFailure(RuntimeException ex, WebRequest request) {
+        if (!(NestedExceptionUtils.getRootCause(ex) instanceof DatabaseBusyException busy)) {
+            return handleGlobalException(ex, request);
+        }
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                busy.getMessage(),
+                request.getDescription(false),
+                HttpStatus.SERVICE_UNAVAILABLE.value() // 503
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(errorDetails);
+    }
+
+    // The async ingestion queue is full (see IngestionService): 429 so clients back off and resubmit
+    @ExceptionHandler(IngestionQueueFullException.class)
+    public ResponseEntity<ErrorDetails> handleIngestionQueueFull(IngestionQueueFullException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                HttpStatus.TOO_MANY_REQUESTS.value() // 429
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "5")
+                .body(errorDetails);
+    }
+
     // Generic fallback handler for any other unexpected exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDetails> handleGlobalException(
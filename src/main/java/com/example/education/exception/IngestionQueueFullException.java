@@ -0,0 +1,9 @@
+package com.example.education.exception;
+
+// The ingestion queue cannot take the submitted rows right now; mapped to 429 Too Many Requests
+public class IngestionQueueFullException extends RuntimeException {
+
+    public IngestionQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.education.exception;
+
+// Thrown when an If-Match header names a version other than the current one (412 Precondition Failed)
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
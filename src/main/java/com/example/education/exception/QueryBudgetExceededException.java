@@ -0,0 +1,10 @@
+package com.example.education.exception;
+
+// Thrown when a request or a measured block issues more SQL statements than its budget allows
+// (only when education.query-budget.fail-on-exceeded=true, or from StatementCounter.assertAtMost)
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,19 +1,33 @@
 package com.example.education.repository;
 
 import com.example.education.entity.College;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository // Marks this interface as a Spring Data JPA repository
 public interface CollegeRepository extends JpaRepository<College, Long> {
     // JpaRepository provides basic CRUD operations: save, findById, findAll, deleteById, etc.
 
-    // Custom derived query method: find a college by its name
-    // Spring Data JPA automatically generates the query: SELECT c FROM College c WHERE c.name = ?1
-    Optional<College> findByName(String name);
+    // Custom derived query method: find colleges by name, case-insensitively, via the indexed normalized column
+    // Spring Data JPA generates: SELECT c FROM College c WHERE c.nameNormalized = ?1 ORDER BY c.collegeId
+    List<College> findByNameNormalizedOrderByCollegeId(String nameNormalized);
 
     // Custom derived query method: find a college by its address
     Optional<College> findByAddress(String address);
+
+    // Keyset pagination ordered on the primary key (see StudentRepository.findViewPageAfter)
+    @Query("SELECT c FROM College c WHERE c.collegeId > :afterId ORDER BY c.collegeId")
+    List<College> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Last step of the cascading delete (see CollegeServiceImpl.deleteCollege); returns the number of rows deleted
+    @Modifying
+    @Query("DELETE FROM College c WHERE c.collegeId = :collegeId")
+    int deleteRowById(@Param("collegeId") Long collegeId);
 }
\ No newline at end of file
@@ -1,26 +1,62 @@
 package com.example.education.repository;
 
+import com.example.education.dto.DepartmentView;
 import com.example.education.entity.Department;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
-    // Find departments by name
-    Optional<Department> findByName(String name);
+    // Find departments by name, case-insensitively, via the indexed normalized column
+    @Query("SELECT d FROM Department d JOIN FETCH d.college WHERE d.nameNormalized = :nameNormalized ORDER BY d.departmentId")
+    List<Department> findAllWithCollegeByNameNormalized(@Param("nameNormalized") String nameNormalized);
 
-    // Find departments by code
-    Optional<Department> findByCode(String code);
+    // Find departments by code, with the college loaded for serialization
+    @Query("SELECT d FROM Department d JOIN FETCH d.college WHERE d.code = :code")
+    Optional<Department> findWithCollegeByCode(@Param("code") String code);
 
-    // Find departments belonging to a specific college (using collegeId from the College entity)
-    // Spring Data JPA traverses the relationship: Department.college.collegeId
-    // --- Add or modify to this: ---
-    @Query("SELECT d FROM Department d JOIN FETCH d.college WHERE d.college.collegeId = :collegeId")
-    List<Department> findByCollegeCollegeId(@Param("collegeId") Long collegeId);
+    // Id only, for resolving a departmentCode column during a CSV import (no join, no entity)
+    @Query("SELECT d.departmentId FROM Department d WHERE d.code = :code")
+    Optional<Long> findIdByCode(@Param("code") String code);
 
-}
\ No newline at end of file
+    // Read-side projections with the college id/name (see StudentRepository.VIEW_SELECT)
+    String VIEW_SELECT = "SELECT new com.example.education.dto.DepartmentView(d.departmentId, d.name, d.code, c.collegeId, c.name, d.version, c.version)"
+            + " FROM Department d JOIN d.college c";
+
+    // Find departments belonging to a specific college
+    @Query(VIEW_SELECT + " WHERE c.collegeId = :collegeId ORDER BY d.departmentId")
+    List<DepartmentView> findViewsByCollegeId(@Param("collegeId") Long collegeId);
+
+    // Single department with its college, used by the reference-data cache
+    @Query("SELECT d FROM Department d JOIN FETCH d.college WHERE d.departmentId = :departmentId")
+    Optional<Department> findWithCollegeById(@Param("departmentId") Long departmentId);
+
+    // Batch parent resolution: loads every referenced department (and its college) in one IN query
+    @Query("SELECT d FROM Department d JOIN FETCH d.college WHERE d.departmentId IN :departmentIds")
+    List<Department> findAllWithCollegeByIdIn(@Param("departmentIds") Collection<Long> departmentIds);
+
+    // Pre-check of a partial-success batch: which of the referenced departments exist, in one IN query
+    @Query("SELECT d.departmentId FROM Department d WHERE d.departmentId IN :departmentIds")
+    List<Long> findExistingIds(@Param("departmentIds") Collection<Long> departmentIds);
+
+    // Keyset pagination ordered on the primary key (see StudentRepository.findViewPageAfter)
+    @Query(VIEW_SELECT + " WHERE d.departmentId > :afterId ORDER BY d.departmentId")
+    List<DepartmentView> findViewPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Unbounded listing; only used when a client explicitly opts in
+    @Query(VIEW_SELECT + " ORDER BY d.departmentId")
+    List<DepartmentView> findAllViews();
+
+    // Cascading college delete: one statement, departments are not loaded (their students/teachers go first)
+    @Modifying
+    @Query("DELETE FROM Department d WHERE d.college.collegeId = :collegeId")
+    int deleteByCollegeId(@Param("collegeId") Long collegeId);
+}
@@ -0,0 +1,84 @@
+package com.example.education.repository;
+
+import com.example.education.dto.CollegeStats;
+import com.example.education.entity.DepartmentStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DepartmentStatsRepository extends JpaRepository<DepartmentStats, Long> {
+
+    // Relative updates: the row lock serializes concurrent writers, so no increment is lost
+    @Modifying
+    @Query("UPDATE DepartmentStats ds SET ds.studentCount = ds.studentCount + :delta WHERE ds.departmentId = :departmentId")
+    int adjustStudentCount(@Param("departmentId") Long departmentId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE DepartmentStats ds SET ds.teacherCount = ds.teacherCount + :delta WHERE ds.departmentId = :departmentId")
+    int adjustTeacherCount(@Param("departmentId") Long departmentId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE DepartmentStats ds SET ds.collegeId = :collegeId WHERE ds.departmentId = :departmentId")
+    int moveToCollege(@Param("departmentId") Long departmentId, @Param("collegeId") Long collegeId);
+
+    // One DELETE statement; CrudRepository.deleteById would load the row first
+    @Modifying
+    @Query("DELETE FROM DepartmentStats ds WHERE ds.departmentId = :departmentId")
+    int deleteRowById(@Param("departmentId") Long departmentId);
+
+    @Modifying
+    @Query("DELETE FROM DepartmentStats ds WHERE ds.collegeId = :collegeId")
+    int deleteByCollegeId(@Param("collegeId") Long collegeId);
+
+    // Zeroed rows for new departments (a new department has no students or teachers yet)
+    @Modifying
+    @Query("INSERT INTO DepartmentStats (departmentId, collegeId, studentCount, teacherCount)"
+            + " SELECT d.departmentId, d.college.collegeId, 0L, 0L FROM Department d WHERE d.departmentId IN :departmentIds"
+            + " AND NOT EXISTS (SELECT 1 FROM DepartmentStats ds WHERE ds.departmentId = d.departmentId)")
+    int insertMissing(@Param("departmentIds") Collection<Long> departmentIds);
+
+    // --- Reconciliation: set-based, one statement each ---
+
+    @Modifying
+    @Query("DELETE FROM DepartmentStats ds WHERE NOT EXISTS (SELECT 1 FROM Department d WHERE d.departmentId = ds.departmentId)")
+    int deleteOrphans();
+
+    // Rows for departments created outside the services (e.g. data.sql), counted on insert
+    @Modifying
+    @Query("INSERT INTO DepartmentStats (departmentId, collegeId, studentCount, teacherCount)"
+            + " SELECT d.departmentId, d.college.collegeId,"
+            + " (SELECT COUNT(s) FROM Student s WHERE s.department.departmentId = d.departmentId),"
+            + " (SELECT COUNT(t) FROM Teacher t WHERE t.department.departmentId = d.departmentId)"
+            + " FROM Department d"
+            + " WHERE NOT EXISTS (SELECT 1 FROM DepartmentStats ds WHERE ds.departmentId = d.departmentId)")
+    int insertAllMissing();
+
+    // Recounts only the rows that drifted from the source tables and returns how many there were
+    @Modifying
+    @Query("UPDATE DepartmentStats ds SET"
+            + " ds.studentCount = (SELECT COUNT(s) FROM Student s WHERE s.department.departmentId = ds.departmentId),"
+            + " ds.teacherCount = (SELECT COUNT(t) FROM Teacher t WHERE t.department.departmentId = ds.departmentId),"
+            + " ds.collegeId = (SELECT d.college.collegeId FROM Department d WHERE d.departmentId = ds.departmentId)"
+            + " WHERE ds.studentCount <> (SELECT COUNT(s) FROM Student s WHERE s.department.departmentId = ds.departmentId)"
+            + " OR ds.teacherCount <> (SELECT COUNT(t) FROM Teacher t WHERE t.department.departmentId = ds.departmentId)"
+            + " OR ds.collegeId <> (SELECT d.college.collegeId FROM Department d WHERE d.departmentId = ds.departmentId)")
+    int recountDrifted();
+
+    // --- Reads ---
+
+    String COLLEGE_STATS_SELECT = "SELECT new com.example.education.dto.CollegeStats(ds.collegeId, COUNT(ds), SUM(ds.studentCount), SUM(ds.teacherCount))"
+            + " FROM DepartmentStats ds";
+
+    @Query(COLLEGE_STATS_SELECT + " GROUP BY ds.collegeId ORDER BY ds.collegeId")
+    List<CollegeStats> findAllCollegeStats();
+
+    @Query(COLLEGE_STATS_SELECT + " WHERE ds.collegeId = :collegeId GROUP BY ds.collegeId")
+    Optional<CollegeStats> findCollegeStats(@Param("collegeId") Long collegeId);
+}
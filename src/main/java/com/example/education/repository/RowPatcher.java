@@ -0,0 +1,62 @@
+package com.example.education.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+// Read-free partial updates for the PUT/PATCH endpoints.
+// Writes only the given columns (dynamic-update semantics) and bumps the @Version column in a single statement,
+// wrapped in H2's data change delta table 'SELECT ... FROM OLD TABLE (UPDATE ...)' so that the same round-trip
+// also returns the previous values callers need for cache eviction and counters. No entity is loaded, merged
+// or dirty-checked. Table and column names come from code only; values are always bound as parameters.
+@Repository // Translates constraint violations (e.g. a duplicate email) like the Spring Data repositories
+public class RowPatcher {
+
+    private final EntityManager entityManager;
+
+    public RowPatcher(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Returns the 'returning' columns as they were before the update, or empty when no row has that id
+    // (and, if 'expectedVersion' is not null, that version). An empty 'columns' map only checks the row.
+    public Optional<Object[]> update(String table, String idColumn, Long id, Long expectedVersion,
+                                     Map<String, Object> columns, List<String> returning) {
+        String where = idColumn + " = :id" + (expectedVersion != null ? " AND version = :expectedVersion" : "");
+        String select = "SELECT " + String.join(", ", returning) + " FROM ";
+        String sql;
+        if (columns.isEmpty()) {
+            sql = select + table + " WHERE " + where;
+        } else {
+            StringJoiner assignments = new StringJoiner(", ");
+            columns.keySet().forEach(column -> assignments.add(column + " = :" + column));
+            assignments.add("version = version + 1");
+            sql = select + "OLD TABLE (UPDATE " + table + " SET " + assignments + " WHERE " + where + ")";
+        }
+
+        Query query = entityManager.createNativeQuery(sql).setParameter("id", id);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        columns.forEach(query::setParameter);
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object row = rows.get(0);
+        return Optional.of(row instanceof Object[] values ? values : new Object[]{row}); // A single column comes back unwrapped
+    }
+
+    // Current version of a row, to tell a stale If-Match from a missing row after update() matched nothing
+    public Optional<Long> findVersion(String table, String idColumn, Long id) {
+        List<?> rows = entityManager.createNativeQuery("SELECT version FROM " + table + " WHERE " + idColumn + " = :id")
+                .setParameter("id", id)
+                .getResultList();
+        return rows.isEmpty() ? Optional.empty() : Optional.of(((Number) rows.get(0)).longValue());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.education.repository;
+
+import com.example.education.entity.Student;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+// Insert-or-update keyed on the unique email column (PUT /students/by-email), without reading first.
+// Rows are sent as one H2 'MERGE INTO student USING (VALUES ...) ON email' per MAX_ROWS_PER_STATEMENT rows. The MERGE
+// is wrapped in 'SELECT ... FROM OLD TABLE (...)', which returns the previous state of the updated rows in the same
+// round-trip. Two transactions syncing the same new email can both take NOT MATCHED; the second INSERT then waits
+// for the first to commit and fails on the unique email. H2 undoes only that statement, so it is run again and the
+// row now takes MATCHED. The statement goes through the session's JDBC coordinator rather than a JPA query, because
+// a failed JPA query marks the whole transaction rollback-only.
+@Repository // Translates constraint violations like the Spring Data repositories
+public class StudentMerger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentMerger.class);
+
+    // Four bound values per row; keeps each statement well below the driver's parameter limits
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    // A retry only loses again if another transaction inserts one of the other new emails in the meantime
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final EntityManager entityManager;
+
+    public StudentMerger(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Must be called inside a transaction, with the departments already checked. Every row gets a fresh id from the
+    // student sequence (Hibernate's pooled generator, so mostly without a round-trip), used if its email is new.
+    // Rows whose email exists have name and department updated and their version bumped; they are returned as
+    // they were before (StudentRepository.ROW_COLUMNS), so inserted rows are the ones not returned.
+    public List<Object[]> mergeByEmail(List<Student> students) {
+        entityManager.flush(); // As a native query would: the MERGE must see pending changes of this session
+        assignNewIds(students);
+        List<Object[]> previousRows = new ArrayList<>();
+        for (int from = 0; from < students.size(); from += MAX_ROWS_PER_STATEMENT) {
+            previousRows.addAll(merge(students.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, students.size()))));
+        }
+        return previousRows;
+    }
+
+    private List<Object[]> merge(List<Student> students) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < students.size(); i++) {
+            values.add("(CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS BIGINT))");
+        }
+        String sql = "SELECT " + StudentRepository.ROW_COLUMNS + " FROM OLD TABLE (MERGE INTO student t"
+                + " USING (VALUES " + values + ") s(student_id, email, name, department_id) ON t.email = s.email"
+                + " WHEN MATCHED THEN UPDATE SET name = s.name, department_department_id = s.department_id, version = t.version + 1"
+                + " WHEN NOT MATCHED THEN INSERT (student_id, email, name, department_department_id, version)"
+                + " VALUES (s.student_id, s.email, s.name, s.department_id, 0))";
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return execute(session.getJdbcCoordinator(), sql, students);
+            } catch (SQLException e) {
+                if (attempt < MAX_ATTEMPTS && UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    logger.debug("Email taken by a concurrent insert, merging {} students again (attempt {})",
+                            students.size(), attempt + 1);
+                    continue;
+                }
+                throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "could not merge students", sql);
+            }
+        }
+    }
+
+    // Prepared through Hibernate, so the statement is logged and counted (StatementCounter) like any other query
+    private static List<Object[]> execute(JdbcCoordinator jdbc, String sql, List<Student> students) throws SQLException {
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            int index = 1;
+            for (Student student : students) {
+                statement.setLong(index++, student.getStudentId());
+                statement.setString(index++, student.getEmail());
+                statement.setString(index++, student.getName());
+                statement.setLong(index++, student.getDepartment().getDepartmentId());
+            }
+            ResultSet resultSet = statement.executeQuery();
+            int columns = resultSet.getMetaData().getColumnCount();
+            List<Object[]> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                Object[] row = new Object[columns];
+                for (int column = 0; column < columns; column++) {
+                    row[column] = resultSet.getObject(column + 1);
+                }
+                rows.add(row);
+            }
+            return rows;
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement); // Closes the result set as well
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    // Ids from the same generator as persist(), so they never collide with ids Hibernate hands out itself
+    private void assignNewIds(List<Student> students) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Student.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) persister.getGenerator();
+        for (Student student : students) {
+            student.setStudentId(((Number) generator.generate(session, student, null, EventType.INSERT)).longValue());
+        }
+    }
+}
@@ -1,24 +1,106 @@
 package com.example.education.repository;
 
+import com.example.education.dto.DepartmentStudentCount;
+import com.example.education.dto.NameSuggestion;
+import com.example.education.dto.StudentView;
 import com.example.education.entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
-    // Find students by name
-    Optional<Student> findByName(String name);
+    // Rows per JDBC round-trip when streaming the table (also the persistence context clear interval)
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Find students by name, case-insensitively, via the indexed normalized column (names are not unique)
+    @Query("SELECT s FROM Student s JOIN FETCH s.department d JOIN FETCH d.college WHERE s.nameNormalized = :nameNormalized ORDER BY s.studentId")
+    List<Student> findAllWithDepartmentByNameNormalized(@Param("nameNormalized") String nameNormalized);
 
     // Find a student by email (assuming email is unique)
     Optional<Student> findByEmail(String email);
 
+    // Pre-check of a partial-success batch: which of its emails are already taken, in one IN query
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Point lookup with the department and college fetched, so the (cached) result serializes without a session
+    @Query("SELECT s FROM Student s JOIN FETCH s.department d JOIN FETCH d.college WHERE s.email = :email")
+    Optional<Student> findWithDepartmentByEmail(@Param("email") String email);
+
+    // Body of a PUT/PATCH response, read after the single-statement update (see RowPatcher)
+    @Query("SELECT s FROM Student s JOIN FETCH s.department d JOIN FETCH d.college WHERE s.studentId = :studentId")
+    Optional<Student> findWithDepartmentById(@Param("studentId") Long studentId);
+
+    // --- Set-based writes, no entity is loaded ---
+    // Each is one statement wrapped in H2's data change delta table (see RowPatcher): it changes the rows and returns
+    // them as they were before, with the columns the caches, the name index and the counters need (see ROW_COLUMNS)
+    String ROW_COLUMNS = "student_id, name, email, department_department_id, version";
+    String DELETE_RETURNING = "SELECT " + ROW_COLUMNS + " FROM OLD TABLE (DELETE FROM student WHERE ";
+
+    @Query(value = DELETE_RETURNING + "student_id = :studentId)", nativeQuery = true)
+    List<Object[]> deleteReturningById(@Param("studentId") Long studentId);
+
+    @Query(value = DELETE_RETURNING + "department_department_id = :departmentId)", nativeQuery = true)
+    List<Object[]> deleteReturningByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Query(value = DELETE_RETURNING + "department_department_id IN"
+            + " (SELECT department_id FROM department WHERE college_college_id = :collegeId))", nativeQuery = true)
+    List<Object[]> deleteReturningByCollegeId(@Param("collegeId") Long collegeId);
+
+    @Query(value = "SELECT " + ROW_COLUMNS + " FROM OLD TABLE (UPDATE student"
+            + " SET department_department_id = :toDepartmentId, version = version + 1"
+            + " WHERE department_department_id = :fromDepartmentId)", nativeQuery = true)
+    List<Object[]> reassignReturning(@Param("fromDepartmentId") Long fromDepartmentId, @Param("toDepartmentId") Long toDepartmentId);
+
+    // Read-side projections: only the columns the API returns plus the department id/name, in one query
+    String VIEW_SELECT = "SELECT new com.example.education.dto.StudentView(s.studentId, s.name, s.email, d.departmentId, d.name, s.version, d.version)"
+            + " FROM Student s JOIN s.department d";
+
+    @Query(VIEW_SELECT + " WHERE s.studentId = :studentId")
+    Optional<StudentView> findViewById(@Param("studentId") Long studentId);
+
     // Find students belonging to a specific department
+    @Query(VIEW_SELECT + " WHERE d.departmentId = :departmentId ORDER BY s.studentId")
+    List<StudentView> findViewsByDepartmentId(@Param("departmentId") Long departmentId);
+
+    // Student count per department of a college in one query (college overview); empty departments are absent
+    @Query("SELECT new com.example.education.dto.DepartmentStudentCount(d.departmentId, COUNT(s))"
+            + " FROM Student s JOIN s.department d WHERE d.college.collegeId = :collegeId GROUP BY d.departmentId")
+    List<DepartmentStudentCount> countByDepartmentForCollege(@Param("collegeId") Long collegeId);
+
+    // Keyset pagination: seeks past the last seen primary key instead of using OFFSET,
+    // so every page costs the same index range scan regardless of how deep the client is
+    @Query(VIEW_SELECT + " WHERE s.studentId > :afterId ORDER BY s.studentId")
+    List<StudentView> findViewPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Unbounded listing; only used when a client explicitly opts in
+    @Query(VIEW_SELECT + " ORDER BY s.studentId")
+    List<StudentView> findAllViews();
+
+    // Forward-only cursor over the whole table for exports. Rows are pulled from JDBC in
+    // fetch-size chunks and read-only entities skip the dirty-checking snapshot.
+    // Must be consumed inside a transaction and closed afterwards (try-with-resources).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT s FROM Student s JOIN FETCH s.department d JOIN FETCH d.college ORDER BY s.studentId")
+    Stream<Student> streamAllWithDepartment();
 
-    @Query("SELECT s FROM Student s JOIN FETCH s.department d JOIN FETCH d.college WHERE d.departmentId = :departmentId")
-    List<Student> findByDepartmentDepartmentId(@Param("departmentId") Long departmentId);
+    // Id/name pairs only, for building the typeahead index at startup
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.example.education.dto.NameSuggestion(s.studentId, s.name) FROM Student s")
+    Stream<NameSuggestion> streamNames();
 }
\ No newline at end of file
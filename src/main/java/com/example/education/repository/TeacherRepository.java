@@ -1,23 +1,79 @@
 package com.example.education.repository;
 
+import com.example.education.dto.NameSuggestion;
+import com.example.education.dto.TeacherView;
 import com.example.education.entity.Teacher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
-    // Find teachers by name
-    Optional<Teacher> findByName(String name);
+    // Find teachers by name, case-insensitively, via the indexed normalized column (names are not unique)
+    @Query("SELECT t FROM Teacher t JOIN FETCH t.department d JOIN FETCH d.college WHERE t.nameNormalized = :nameNormalized ORDER BY t.teacherId")
+    List<Teacher> findAllWithDepartmentByNameNormalized(@Param("nameNormalized") String nameNormalized);
 
-    // Find teachers by their degree
-    List<Teacher> findByDegree(String degree);
+    // Find teachers by their degree, with department and college loaded for serialization
+    @Query("SELECT t FROM Teacher t JOIN FETCH t.department d JOIN FETCH d.college WHERE t.degree = :degree ORDER BY t.teacherId")
+    List<Teacher> findAllWithDepartmentByDegree(@Param("degree") String degree);
+
+    // Body of a PUT/PATCH response (see StudentRepository.findWithDepartmentById)
+    @Query("SELECT t FROM Teacher t JOIN FETCH t.department d JOIN FETCH d.college WHERE t.teacherId = :teacherId")
+    Optional<Teacher> findWithDepartmentById(@Param("teacherId") Long teacherId);
+
+    // --- Set-based writes (see StudentRepository.ROW_COLUMNS) ---
+    String ROW_COLUMNS = "teacher_id, name, degree, department_department_id, version";
+    String DELETE_RETURNING = "SELECT " + ROW_COLUMNS + " FROM OLD TABLE (DELETE FROM teacher WHERE ";
+
+    @Query(value = DELETE_RETURNING + "teacher_id = :teacherId)", nativeQuery = true)
+    List<Object[]> deleteReturningById(@Param("teacherId") Long teacherId);
+
+    @Query(value = DELETE_RETURNING + "department_department_id = :departmentId)", nativeQuery = true)
+    List<Object[]> deleteReturningByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Query(value = DELETE_RETURNING + "department_department_id IN"
+            + " (SELECT department_id FROM department WHERE college_college_id = :collegeId))", nativeQuery = true)
+    List<Object[]> deleteReturningByCollegeId(@Param("collegeId") Long collegeId);
+
+    @Query(value = "SELECT " + ROW_COLUMNS + " FROM OLD TABLE (UPDATE teacher"
+            + " SET department_department_id = :toDepartmentId, version = version + 1"
+            + " WHERE department_department_id = :fromDepartmentId)", nativeQuery = true)
+    List<Object[]> reassignReturning(@Param("fromDepartmentId") Long fromDepartmentId, @Param("toDepartmentId") Long toDepartmentId);
+
+    // Read-side projections with the department id/name (see StudentRepository.VIEW_SELECT)
+    String VIEW_SELECT = "SELECT new com.example.education.dto.TeacherView(t.teacherId, t.name, t.degree, d.departmentId, d.name, t.version, d.version)"
+            + " FROM Teacher t JOIN t.department d";
+
+    @Query(VIEW_SELECT + " WHERE t.teacherId = :teacherId")
+    Optional<TeacherView> findViewById(@Param("teacherId") Long teacherId);
 
     // Find teachers belonging to a specific department
-    @Query("SELECT t FROM Teacher t JOIN FETCH t.department d JOIN FETCH d.college WHERE d.departmentId = :departmentId")
-    List<Teacher> findByDepartmentDepartmentId(@Param("departmentId") Long departmentId);
+    @Query(VIEW_SELECT + " WHERE d.departmentId = :departmentId ORDER BY t.teacherId")
+    List<TeacherView> findViewsByDepartmentId(@Param("departmentId") Long departmentId);
+
+    // All teachers of a college's departments in one query (college overview)
+    @Query(VIEW_SELECT + " WHERE d.college.collegeId = :collegeId ORDER BY t.teacherId")
+    List<TeacherView> findViewsByCollegeId(@Param("collegeId") Long collegeId);
+
+    // Keyset pagination ordered on the primary key (see StudentRepository.findViewPageAfter)
+    @Query(VIEW_SELECT + " WHERE t.teacherId > :afterId ORDER BY t.teacherId")
+    List<TeacherView> findViewPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Unbounded listing; only used when a client explicitly opts in
+    @Query(VIEW_SELECT + " ORDER BY t.teacherId")
+    List<TeacherView> findAllViews();
+
+    // Id/name pairs only, for building the typeahead index at startup
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.education.dto.NameSuggestion(t.teacherId, t.name) FROM Teacher t")
+    Stream<NameSuggestion> streamNames();
 }
\ No newline at end of file
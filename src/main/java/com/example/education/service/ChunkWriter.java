@@ -0,0 +1,141 @@
+package com.example.education.service;
+
+import com.example.education.dto.BatchItemResult;
+import com.example.education.dto.BatchResult;
+import com.example.education.dto.RowFailure;
+import com.example.education.exception.ConstraintViolations;
+import com.example.education.exception.ResourceNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+// Writes one chunk of a large load (async batches, CSV imports) in its own transaction, reporting bad rows
+// instead of failing the load: rows are validated one by one, and a chunk that fails to commit is retried
+// one row per transaction so only the rows at fault are lost.
+@Component
+public class ChunkWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkWriter.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public ChunkWriter(TransactionTemplate transactionTemplate, Validator validator,
+                       @Value("${education.ingest.chunk-size:1000}") int chunkSize) {
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    // Partial-success batch (POST /students/batch?partial=true): rows listed in 'rejected' (index -> reason, found by
+    // the caller's pre-checks) are skipped, every other row is written in chunks of 'chunk-size' and all valid rows
+    // are committed. Returns one item per row, with the saved id ('idOf' on the saved copy) or the error.
+    public <T> BatchResult writePartially(List<T> rows, Map<Integer, String> rejected, Function<T, Long> idOf,
+                                          UnaryOperator<T> copy, Consumer<List<T>> saveAll, Consumer<T> save) {
+        BatchItemResult[] items = new BatchItemResult[rows.size()];
+        rejected.forEach((index, reason) -> items[index] = BatchItemResult.failed(index, reason));
+        Consumer<RowFailure> onFailure = failure -> items[failure.getIndex()] = BatchItemResult.failed(failure.getIndex(), failure.getMessage());
+        ObjIntConsumer<T> onSaved = (saved, index) -> items[index] = BatchItemResult.created(index, idOf.apply(saved));
+        List<T> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        for (int i = 0; i < rows.size(); i++) {
+            if (items[i] != null) {
+                continue;
+            }
+            chunk.add(rows.get(i));
+            chunkIndexes.add(i);
+            if (chunk.size() == chunkSize) {
+                write(chunk, chunkIndexes::get, copy, saveAll, save, onFailure, onSaved);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, chunkIndexes::get, copy, saveAll, save, onFailure, onSaved);
+        }
+        int saved = (int) Arrays.stream(items).filter(item -> item.getStatus() == BatchItemResult.Status.CREATED).count();
+        return new BatchResult(saved, rows.size() - saved, Arrays.asList(items));
+    }
+
+    // 'saveAll' writes the chunk and 'save' one row, inside the transaction opened here; 'copy' returns an unsaved
+    // copy of a row, because a rolled back attempt leaves generated ids and versions behind on its objects.
+    // 'indexOf' maps a position in 'rows' to the row's position in the whole load, for the failures. Returns the rows saved.
+    public <T> int write(List<T> rows, IntUnaryOperator indexOf, UnaryOperator<T> copy, Consumer<List<T>> saveAll,
+                         Consumer<T> save, Consumer<RowFailure> failures) {
+        return write(rows, indexOf, copy, saveAll, save, failures, (saved, index) -> { });
+    }
+
+    // As above, also passing every saved row (the saved copy) and its index to 'onSaved'
+    private <T> int write(List<T> rows, IntUnaryOperator indexOf, UnaryOperator<T> copy, Consumer<List<T>> saveAll,
+                          Consumer<T> save, Consumer<RowFailure> failures, ObjIntConsumer<T> onSaved) {
+        List<Integer> valid = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Set<ConstraintViolation<T>> violations = validator.validate(rows.get(i));
+            if (violations.isEmpty()) {
+                valid.add(i);
+            } else {
+                failures.accept(new RowFailure(indexOf.applyAsInt(i), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+            }
+        }
+        List<T> copies = valid.stream().map(i -> copy.apply(rows.get(i))).collect(Collectors.toCollection(ArrayList::new));
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveAll.accept(copies));
+            for (int k = 0; k < copies.size(); k++) {
+                onSaved.accept(copies.get(k), indexOf.applyAsInt(valid.get(k))); // saveAll may replace merged rows in the list
+            }
+            return copies.size();
+        } catch (RuntimeException chunkFailure) {
+            // One bad row rolls back the whole chunk: redo it one row per transaction to find the culprits
+            logger.debug("Chunk at row {} failed, retrying row by row: {}", indexOf.applyAsInt(0),
+                    NestedExceptionUtils.getMostSpecificCause(chunkFailure).getMessage());
+        }
+        int saved = 0;
+        for (int i : valid) {
+            T row = copy.apply(rows.get(i));
+            try {
+                transactionTemplate.executeWithoutResult(status -> save.accept(row));
+                onSaved.accept(row, indexOf.applyAsInt(i));
+                saved++;
+            } catch (RuntimeException rowFailure) {
+                failures.accept(new RowFailure(indexOf.applyAsInt(i), reason(rowFailure)));
+            }
+        }
+        return saved;
+    }
+
+    // Short client-facing reason: these end up in batch results, GET /jobs/{id} and import results. The driver's
+    // message (SQL, constraint names, values) is only logged; our own exceptions already carry a client-safe message.
+    private static String reason(RuntimeException ex) {
+        logger.debug("Row rejected: {}", NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        if (ex instanceof DataIntegrityViolationException || ex instanceof ConstraintViolationException) {
+            return ConstraintViolations.describe(ex);
+        }
+        if (ex instanceof ResourceNotFoundException || ex instanceof IllegalArgumentException) {
+            return ex.getMessage();
+        }
+        return "The row could not be saved";
+    }
+}
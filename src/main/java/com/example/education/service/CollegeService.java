@@ -1,5 +1,7 @@
 package com.example.education.service;
 
+import com.example.education.dto.CollegeOverview;
+import com.example.education.dto.KeysetPage;
 import com.example.education.entity.College;
 import java.util.List;
 
@@ -7,9 +9,12 @@ public interface CollegeService {
     College saveCollege(College college);
     List<College> saveAllColleges(List<College> colleges); // NEW: To save multiple colleges
     List<College> getAllColleges();
+    KeysetPage<College> getCollegesPage(Long afterCollegeId, int limit);
     College getCollegeById(Long collegeId);
-    College updateCollege(Long collegeId, College college);
-    College patchCollege(Long collegeId, College college);
+    CollegeOverview getCollegeOverview(Long collegeId); // Departments, teachers and student counts in one call
+    // expectedVersion: from If-Match, null for none. When returnBody is false, returns only the id and versions (no read after the UPDATE)
+    College updateCollege(Long collegeId, College college, Long expectedVersion, boolean returnBody);
+    College patchCollege(Long collegeId, College college, Long expectedVersion, boolean returnBody);
     College deleteCollege(Long collegeId);
-    College getCollegeByName(String name);
+    List<College> getCollegesByName(String name); // Case-insensitive; names are not unique
 }
\ No newline at end of file
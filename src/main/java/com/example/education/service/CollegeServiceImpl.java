@@ -1,16 +1,34 @@
 package com.example.education.service;
 
+import com.example.education.config.CacheConfig;
+import com.example.education.dto.CollegeOverview;
+import com.example.education.dto.DepartmentOverview;
+import com.example.education.dto.DepartmentStudentCount;
+import com.example.education.dto.DepartmentView;
+import com.example.education.dto.KeysetPage;
+import com.example.education.dto.TeacherView;
 import com.example.education.entity.College;
+import com.example.education.entity.Names;
 import com.example.education.exception.ResourceNotFoundException;
 import com.example.education.repository.CollegeRepository;
+import com.example.education.repository.DepartmentRepository;
+import com.example.education.repository.RowPatcher;
+import com.example.education.repository.StudentRepository;
+import com.example.education.repository.TeacherRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class CollegeServiceImpl implements CollegeService {
@@ -18,9 +36,32 @@ public class CollegeServiceImpl implements CollegeService {
     private static final Logger logger = LoggerFactory.getLogger(CollegeServiceImpl.class); // Logger instance
 
     private final CollegeRepository collegeRepository;
-
-    public CollegeServiceImpl(CollegeRepository collegeRepository) {
+    private final BatchInserter batchInserter;
+    private final ReferenceDataCache referenceDataCache; // Cached College lookups
+    private final DepartmentRepository departmentRepository; // For the college overview
+    private final TeacherRepository teacherRepository;
+    private final StudentRepository studentRepository;
+    private final RowPatcher rowPatcher; // Single-statement PUT/PATCH
+    private final StudentService studentService; // Cascading delete: students and teachers also update caches and indexes
+    private final TeacherService teacherService;
+    private final EnrollmentCounters enrollmentCounters;
+
+    public CollegeServiceImpl(CollegeRepository collegeRepository, BatchInserter batchInserter,
+                              ReferenceDataCache referenceDataCache, DepartmentRepository departmentRepository,
+                              TeacherRepository teacherRepository, StudentRepository studentRepository,
+                              RowPatcher rowPatcher,
+                              StudentService studentService, TeacherService teacherService,
+                              EnrollmentCounters enrollmentCounters) {
         this.collegeRepository = collegeRepository;
+        this.batchInserter = batchInserter;
+        this.referenceDataCache = referenceDataCache;
+        this.departmentRepository = departmentRepository;
+        this.teacherRepository = teacherRepository;
+        this.studentRepository = studentRepository;
+        this.rowPatcher = rowPatcher;
+        this.studentService = studentService;
+        this.teacherService = teacherService;
+        this.enrollmentCounters = enrollmentCounters;
     }
 
     @Override
@@ -35,7 +76,7 @@ public class CollegeServiceImpl implements CollegeService {
     public List<College> saveAllColleges(List<College> colleges) {
         logger.info("Saving multiple colleges. Count: {}", colleges.size());
         // No special logic needed here as College has no @ManyToOne parent
-        return collegeRepository.saveAll(colleges);
+        return batchInserter.insertAll(colleges);
     }
 
     @Override
@@ -44,71 +85,132 @@ public class CollegeServiceImpl implements CollegeService {
         return collegeRepository.findAll();
     }
 
+    @Override
+    public KeysetPage<College> getCollegesPage(Long afterCollegeId, int limit) {
+        int pageSize = KeysetPage.clampLimit(limit);
+        logger.debug("Fetching colleges after ID: {}, limit: {}", afterCollegeId, pageSize);
+        // Ask for one extra row so we know whether a next page exists without a COUNT query
+        List<College> rows = collegeRepository.findPageAfter(KeysetPage.startAfter(afterCollegeId), Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, College::getCollegeId);
+    }
+
     @Override
     public College getCollegeById(Long collegeId) {
         logger.debug("Fetching college by ID: {}", collegeId);
-        return collegeRepository.findById(collegeId)
+        return referenceDataCache.findCollege(collegeId)
                 .orElseThrow(() -> {
                     logger.warn("College not found with ID: {}", collegeId);
                     return new ResourceNotFoundException("College not found with ID: " + collegeId);
                 });
     }
 
+    // Three set-based queries (departments, teachers, student counts per department) whatever the number of
+    // departments, run on the request thread in one read-only transaction so they see the same data and count
+    // against the endpoint's query budget; the college itself usually comes from the reference-data cache.
+    @Override
+    @Transactional(readOnly = true)
+    public CollegeOverview getCollegeOverview(Long collegeId) {
+        logger.debug("Building overview for college ID: {}", collegeId);
+        College college = getCollegeById(collegeId);
+
+        List<DepartmentView> departments = departmentRepository.findViewsByCollegeId(collegeId);
+        Map<Long, List<TeacherView>> teachersByDepartment = teacherRepository.findViewsByCollegeId(collegeId).stream()
+                .collect(Collectors.groupingBy(TeacherView::getDepartmentId));
+        Map<Long, Long> studentCountByDepartment = studentRepository.countByDepartmentForCollege(collegeId).stream()
+                .collect(Collectors.toMap(DepartmentStudentCount::getDepartmentId, DepartmentStudentCount::getStudentCount));
+        List<DepartmentOverview> departmentOverviews = departments.stream()
+                .map(d -> new DepartmentOverview(d.getDepartmentId(), d.getName(), d.getCode(),
+                        studentCountByDepartment.getOrDefault(d.getDepartmentId(), 0L),
+                        teachersByDepartment.getOrDefault(d.getDepartmentId(), List.of())))
+                .toList();
+        return new CollegeOverview(college.getCollegeId(), college.getName(), college.getAddress(), departmentOverviews);
+    }
+
     @Override
     @Transactional
-    public College updateCollege(Long collegeId, College college) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.COLLEGES, key = "#collegeId"),
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENTS, allEntries = true), // cached departments embed their college
+            // Cached students/teachers embed their department's college
+            @CacheEvict(cacheNames = {CacheConfig.STUDENTS_BY_EMAIL, CacheConfig.STUDENTS_BY_NAME, CacheConfig.TEACHERS_BY_NAME}, allEntries = true)
+    })
+    public College updateCollege(Long collegeId, College college, Long expectedVersion, boolean returnBody) {
         logger.info("Updating college with ID: {}", collegeId);
-        College existingCollege = collegeRepository.findById(collegeId)
-                .orElseThrow(() -> {
-                    logger.warn("College not found for update with ID: {}", collegeId);
-                    return new ResourceNotFoundException("College not found with ID: " + collegeId);
-                });
-
-        existingCollege.setName(college.getName());
-        existingCollege.setAddress(college.getAddress());
-        return collegeRepository.save(existingCollege);
+        return applyChanges(collegeId, college, expectedVersion, returnBody, "update");
     }
 
     @Override
     @Transactional
-    public College patchCollege(Long collegeId, College college) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.COLLEGES, key = "#collegeId"),
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENTS, allEntries = true), // cached departments embed their college
+            // Cached students/teachers embed their department's college
+            @CacheEvict(cacheNames = {CacheConfig.STUDENTS_BY_EMAIL, CacheConfig.STUDENTS_BY_NAME, CacheConfig.TEACHERS_BY_NAME}, allEntries = true)
+    })
+    public College patchCollege(Long collegeId, College college, Long expectedVersion, boolean returnBody) {
         logger.info("Patching college with ID: {}", collegeId);
-        College existingCollege = collegeRepository.findById(collegeId)
-                .orElseThrow(() -> {
-                    logger.warn("College not found for patch with ID: {}", collegeId);
-                    return new ResourceNotFoundException("College not found with ID: " + collegeId);
-                });
+        return applyChanges(collegeId, college, expectedVersion, returnBody, "patch");
+    }
 
-        if (Objects.nonNull(college.getName()) && !college.getName().isEmpty()) {
-            existingCollege.setName(college.getName());
+    // Single-statement PUT/PATCH, see StudentServiceImpl.applyChanges (PUT bodies are validated as complete)
+    private College applyChanges(Long collegeId, College changes, Long expectedVersion, boolean returnBody, String operation) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (Objects.nonNull(changes.getName()) && !changes.getName().isEmpty()) {
+            columns.put("name", changes.getName());
         }
-        if (Objects.nonNull(college.getAddress()) && !college.getAddress().isEmpty()) {
-            existingCollege.setAddress(college.getAddress());
+        if (Objects.nonNull(changes.getAddress()) && !changes.getAddress().isEmpty()) {
+            columns.put("address", changes.getAddress());
         }
-        return collegeRepository.save(existingCollege);
+        Object[] previous = rowPatcher.update("college", "college_id", collegeId, expectedVersion, columns, List.of("version"))
+                .orElseThrow(() -> {
+                    logger.warn("College not found for {} with ID: {}", operation, collegeId);
+                    return Versions.noRowMatched("College", collegeId, expectedVersion,
+                            () -> rowPatcher.findVersion("college", "college_id", collegeId));
+                });
+        if (returnBody) {
+            return collegeRepository.findById(collegeId).orElseThrow();
+        }
+        // No read: only the id and version for the response's ETag
+        return College.builder().collegeId(collegeId).version(Versions.updatedVersion(previous[0], columns)).build();
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.COLLEGES, key = "#collegeId"),
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENTS, allEntries = true), // cached departments embed their college
+            // Cached students/teachers embed their department's college
+            @CacheEvict(cacheNames = {CacheConfig.STUDENTS_BY_EMAIL, CacheConfig.STUDENTS_BY_NAME, CacheConfig.TEACHERS_BY_NAME}, allEntries = true)
+    })
     public College deleteCollege(Long collegeId) {
         logger.info("Deleting college with ID: {}", collegeId);
-        College collegeToDelete = collegeRepository.findById(collegeId)
+        College collegeToDelete = referenceDataCache.findCollege(collegeId) // Response body, usually without a query
                 .orElseThrow(() -> {
                     logger.warn("College not found for deletion with ID: {}", collegeId);
                     return new ResourceNotFoundException("College not found with ID: " + collegeId);
                 });
-        collegeRepository.delete(collegeToDelete);
-        logger.info("Successfully deleted college with ID: {}", collegeId);
+        // Set-based cascade, children first: one statement per table, no department, teacher or student is loaded
+        int students = studentService.deleteStudentsByCollegeId(collegeId);
+        int teachers = teacherService.deleteTeachersByCollegeId(collegeId);
+        enrollmentCounters.collegeDeleted(collegeId);
+        int departments = departmentRepository.deleteByCollegeId(collegeId);
+        if (collegeRepository.deleteRowById(collegeId) == 0) {
+            // Deleted concurrently after the (cached) lookup; throwing rolls the cascade back
+            throw new ResourceNotFoundException("College not found with ID: " + collegeId);
+        }
+        logger.info("Successfully deleted college with ID: {} with {} departments, {} teachers and {} students",
+                collegeId, departments, teachers, students);
         return collegeToDelete;
     }
 
     @Override
-    public College getCollegeByName(String name) {
-        logger.debug("Fetching college by name: {}", name);
-        return collegeRepository.findByName(name)
-                .orElseThrow(() -> {
-                    logger.warn("College not found with name: {}", name);
-                    return new ResourceNotFoundException("College not found with name: " + name);
-                });
+    public List<College> getCollegesByName(String name) {
+        logger.debug("Fetching colleges by name: {}", name);
+        List<College> colleges = collegeRepository.findByNameNormalizedOrderByCollegeId(Names.normalize(name));
+        if (colleges.isEmpty()) {
+            logger.warn("College not found with name: {}", name);
+            throw new ResourceNotFoundException("College not found with name: " + name);
+        }
+        return colleges;
     }
 }
\ No newline at end of file
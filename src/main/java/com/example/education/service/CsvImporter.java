@@ -0,0 +1,103 @@
+package com.example.education.service;
+
+import com.example.education.dto.ImportResult;
+import com.example.education.entity.Department;
+import com.example.education.repository.DepartmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+// Streaming CSV import for rows that belong to a department (students, teachers).
+// The input is parsed one record at a time and committed every 'chunk-size' rows through an ImportPipeline, so
+// memory stays flat however large the upload is. The department comes from a 'departmentId' or a 'departmentCode' column.
+@Component
+public class CsvImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvImporter.class);
+
+    public static final String DEPARTMENT_ID_COLUMN = "departmentId";
+    public static final String DEPARTMENT_CODE_COLUMN = "departmentCode";
+
+    private final ChunkWriter chunkWriter;
+    private final AsyncTaskExecutor taskExecutor; // Writes one chunk while the next is parsed, see ImportPipeline
+    private final DepartmentRepository departmentRepository;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+
+    public CsvImporter(ChunkWriter chunkWriter, AsyncTaskExecutor taskExecutor, DepartmentRepository departmentRepository,
+                       @Value("${education.ingest.chunk-size:1000}") int chunkSize,
+                       @Value("${education.ingest.max-reported-failures:1000}") int maxReportedFailures,
+                       @Value("${education.ingest.csv.max-field-length:10000}") int maxFieldLength,
+                       @Value("${education.ingest.csv.max-record-length:100000}") int maxRecordLength) {
+        this.chunkWriter = chunkWriter;
+        this.taskExecutor = taskExecutor;
+        this.departmentRepository = departmentRepository;
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+        this.maxFieldLength = maxFieldLength;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // 'toRow' builds an entity from a record (column -> value) and its department, which only carries the id;
+    // 'copy', 'saveAll' and 'save' are passed on to ChunkWriter.write(). A read error (including a field or record
+    // over its length cap) ends the import early: it is reported as a failure of the row being read, and the chunks
+    // committed before it stay.
+    public <T> ImportResult importRows(String entity, Reader csv, BiFunction<Map<String, String>, Department, T> toRow,
+                                       UnaryOperator<T> copy, Consumer<List<T>> saveAll, Consumer<T> save) {
+        Map<String, Optional<Long>> departmentIdsByCode = new HashMap<>(); // A few distinct codes, one query each
+        ImportPipeline<T> pipeline = new ImportPipeline<>(chunkWriter, taskExecutor, chunkSize, maxReportedFailures,
+                copy, saveAll, save);
+        try (CsvReader reader = new CsvReader(csv, maxFieldLength, maxRecordLength)) {
+            for (Map<String, String> record = reader.next(); record != null; record = reader.next()) {
+                T row;
+                try {
+                    row = toRow.apply(record, department(record, departmentIdsByCode));
+                } catch (RuntimeException badRow) {
+                    pipeline.reject(badRow.getMessage());
+                    continue;
+                }
+                pipeline.add(row);
+            }
+        } catch (IOException e) {
+            pipeline.reject("Failed to read the CSV input: " + e.getMessage());
+        }
+        ImportResult result = pipeline.finish();
+        logger.info("Imported {} of {} {} rows from CSV ({} failed) at {} rows/s", result.getImportedRows(),
+                result.getTotalRows(), entity, result.getFailedRows(), result.getRowsPerSecond());
+        return result;
+    }
+
+    // Null when neither column is set; the row then fails validation like a JSON row without a department
+    private Department department(Map<String, String> record, Map<String, Optional<Long>> departmentIdsByCode) {
+        String id = record.get(DEPARTMENT_ID_COLUMN);
+        if (id != null) {
+            try {
+                return Department.builder().departmentId(Long.valueOf(id)).build();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(DEPARTMENT_ID_COLUMN + " is not a number: " + id);
+            }
+        }
+        String code = record.get(DEPARTMENT_CODE_COLUMN);
+        if (code == null) {
+            return null;
+        }
+        Long departmentId = departmentIdsByCode
+                .computeIfAbsent(code, c -> departmentRepository.findIdByCode(c))
+                .orElseThrow(() -> new IllegalArgumentException("Department not found with code: " + code));
+        return Department.builder().departmentId(departmentId).build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.education.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Minimal streaming CSV (RFC 4180) reader for the /import endpoints: the first record is the header, every
+// following record is returned as a column -> value map. Reads one record at a time, so memory does not grow
+// with the input. Supports quoted fields with embedded commas, line breaks and "" escapes; skips blank lines.
+// Fields and records are capped in length, so an unterminated quote or a file without line breaks cannot make
+// a single record buffer the whole upload; hitting a cap is a read error.
+final class CsvReader implements Closeable {
+
+    private static final char UTF8_BOM = '\uFEFF';
+
+    private final BufferedReader in;
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+    private List<String> header;
+    private int lookahead = -2; // One character read ahead after a closing quote; -2 when none
+
+    CsvReader(Reader reader, int maxFieldLength, int maxRecordLength) {
+        this.in = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.maxFieldLength = maxFieldLength;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // The next data record keyed by the (trimmed) header names, or null at the end of the input.
+    // Values are trimmed and empty values are left out, so a missing column and an empty cell both read as null.
+    Map<String, String> next() throws IOException {
+        if (header == null) {
+            header = readRecord();
+            if (header == null) {
+                return null;
+            }
+            if (!header.isEmpty() && !header.get(0).isEmpty() && header.get(0).charAt(0) == UTF8_BOM) {
+                header.set(0, header.get(0).substring(1));
+            }
+            header.replaceAll(String::trim);
+        }
+        List<String> fields = readRecord();
+        if (fields == null) {
+            return null;
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < Math.min(fields.size(), header.size()); i++) {
+            String value = fields.get(i).trim();
+            if (!value.isEmpty()) {
+                record.put(header.get(i), value);
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        while (true) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int recordLength = 0;
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            while (true) {
+                if (++recordLength > maxRecordLength) {
+                    throw new IOException("CSV record longer than " + maxRecordLength + " characters");
+                }
+                if (field.length() > maxFieldLength) {
+                    throw new IOException("CSV field longer than " + maxFieldLength + " characters");
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field in CSV input");
+                    }
+                    if (c == '"') {
+                        int nextChar = read();
+                        if (nextChar == '"') {
+                            field.append('"'); // Escaped quote
+                        } else {
+                            quoted = false;
+                            lookahead = nextChar;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            if (fields.size() > 1 || !fields.get(0).isBlank()) {
+                return fields;
+            }
+            if (c == -1) {
+                return null; // Trailing blank line
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -2) {
+            int c = lookahead;
+            lookahead = -2;
+            return c;
+        }
+        return in.read();
+    }
+}
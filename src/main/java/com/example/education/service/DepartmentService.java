@@ -1,17 +1,21 @@
 package com.example.education.service;
 
+import com.example.education.dto.DepartmentView;
+import com.example.education.dto.KeysetPage;
 import com.example.education.entity.Department;
 import java.util.List;
 
 public interface DepartmentService {
     Department saveDepartment(Department department);
     List<Department> saveAllDepartments(List<Department> departments); // NEW: To save multiple departments
-    List<Department> getAllDepartments();
-    Department getDepartmentById(Long departmentId);
-    Department updateDepartment(Long departmentId, Department department);
-    Department patchDepartment(Long departmentId, Department department);
+    List<DepartmentView> getAllDepartments();
+    KeysetPage<DepartmentView> getDepartmentsPage(Long afterDepartmentId, int limit);
+    DepartmentView getDepartmentById(Long departmentId);
+    // expectedVersion: from If-Match, null for none. When returnBody is false, returns only the id and versions (no read after the UPDATE)
+    Department updateDepartment(Long departmentId, Department department, Long expectedVersion, boolean returnBody);
+    Department patchDepartment(Long departmentId, Department department, Long expectedVersion, boolean returnBody);
     Department deleteDepartment(Long departmentId);
-    Department getDepartmentByName(String name);
+    List<Department> getDepartmentsByName(String name); // Case-insensitive; names are not unique
     Department getDepartmentByCode(String code);
-    List<Department> getDepartmentsByCollegeId(Long collegeId);
+    List<DepartmentView> getDepartmentsByCollegeId(Long collegeId);
 }
\ No newline at end of file
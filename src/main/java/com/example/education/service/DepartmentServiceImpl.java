@@ -1,18 +1,30 @@
 package com.example.education.service;
 
+import com.example.education.config.CacheConfig;
+import com.example.education.dto.DepartmentView;
+import com.example.education.dto.KeysetPage;
 import com.example.education.entity.College; // Import College entity
 import com.example.education.entity.Department;
+import com.example.education.entity.Names;
 import com.example.education.exception.ResourceNotFoundException;
 import com.example.education.repository.CollegeRepository; // Import CollegeRepository
 import com.example.education.repository.DepartmentRepository;
+import com.example.education.repository.RowPatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class DepartmentServiceImpl implements DepartmentService {
@@ -21,10 +33,20 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
     private final CollegeRepository collegeRepository; // Needed to fetch associated College
-
-    public DepartmentServiceImpl(DepartmentRepository departmentRepository, CollegeRepository collegeRepository) {
+    private final BatchInserter batchInserter;
+    private final ReferenceDataCache referenceDataCache; // Cached College/Department lookups
+    private final EnrollmentCounters enrollmentCounters; // Owns the department_stats row of each department
+    private final RowPatcher rowPatcher; // Single-statement PUT/PATCH
+
+    public DepartmentServiceImpl(DepartmentRepository departmentRepository, CollegeRepository collegeRepository,
+                                 BatchInserter batchInserter, ReferenceDataCache referenceDataCache,
+                                 EnrollmentCounters enrollmentCounters, RowPatcher rowPatcher) {
         this.departmentRepository = departmentRepository;
         this.collegeRepository = collegeRepository;
+        this.batchInserter = batchInserter;
+        this.referenceDataCache = referenceDataCache;
+        this.enrollmentCounters = enrollmentCounters;
+        this.rowPatcher = rowPatcher;
     }
 
     @Override
@@ -33,7 +55,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         logger.info("Saving single department: {}", department.getName());
         // Ensure the associated College exists before saving the Department
         if (department.getCollege() != null && department.getCollege().getCollegeId() != null) {
-            College college = collegeRepository.findById(department.getCollege().getCollegeId())
+            College college = referenceDataCache.findCollege(department.getCollege().getCollegeId())
                     .orElseThrow(() -> new ResourceNotFoundException(
                             "College not found with ID: " + department.getCollege().getCollegeId() + " for department " + department.getName()
                     ));
@@ -41,37 +63,54 @@ public class DepartmentServiceImpl implements DepartmentService {
         } else {
             throw new IllegalArgumentException("Department must be associated with a valid College ID.");
         }
-        return departmentRepository.save(department);
+        Department savedDepartment = departmentRepository.save(department);
+        enrollmentCounters.departmentsCreated(List.of(savedDepartment));
+        return savedDepartment;
     }
 
     @Override
     @Transactional
     public List<Department> saveAllDepartments(List<Department> departments) {
         logger.info("Saving multiple departments. Count: {}", departments.size());
+        Set<Long> collegeIds = new HashSet<>();
         for (Department dept : departments) {
             if (dept.getCollege() != null && dept.getCollege().getCollegeId() != null) {
-                College college = collegeRepository.findById(dept.getCollege().getCollegeId())
-                        .orElseThrow(() -> new ResourceNotFoundException(
-                                "College not found with ID: " + dept.getCollege().getCollegeId() + " for department " + dept.getName()
-                        ));
-                dept.setCollege(college); // Set the managed College entity
+                collegeIds.add(dept.getCollege().getCollegeId());
             } else {
                 throw new IllegalArgumentException("Each department in the list must be associated with a valid College ID.");
             }
         }
-        return departmentRepository.saveAll(departments);
+        // One IN query for all distinct colleges instead of a findById per row
+        Map<Long, College> colleges = ParentLookup.loadAll(collegeIds,
+                collegeRepository::findAllById, College::getCollegeId, "College");
+        for (Department dept : departments) {
+            dept.setCollege(colleges.get(dept.getCollege().getCollegeId())); // Set the managed College entity
+        }
+        List<Department> savedDepartments = batchInserter.insertAll(departments);
+        enrollmentCounters.departmentsCreated(savedDepartments);
+        return savedDepartments;
     }
 
     @Override
-    public List<Department> getAllDepartments() {
+    public List<DepartmentView> getAllDepartments() {
         logger.debug("Fetching all departments.");
-        return departmentRepository.findAll();
+        return departmentRepository.findAllViews();
+    }
+
+    @Override
+    public KeysetPage<DepartmentView> getDepartmentsPage(Long afterDepartmentId, int limit) {
+        int pageSize = KeysetPage.clampLimit(limit);
+        logger.debug("Fetching departments after ID: {}, limit: {}", afterDepartmentId, pageSize);
+        // Ask for one extra row so we know whether a next page exists without a COUNT query
+        List<DepartmentView> rows = departmentRepository.findViewPageAfter(KeysetPage.startAfter(afterDepartmentId), Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, DepartmentView::getDepartmentId);
     }
 
     @Override
-    public Department getDepartmentById(Long departmentId) {
+    public DepartmentView getDepartmentById(Long departmentId) {
         logger.debug("Fetching department by ID: {}", departmentId);
-        return departmentRepository.findById(departmentId)
+        return referenceDataCache.findDepartment(departmentId)
+                .map(DepartmentView::from) // Served from the reference-data cache, no query on a hit
                 .orElseThrow(() -> {
                     logger.warn("Department not found with ID: {}", departmentId);
                     return new ResourceNotFoundException("Department not found with ID: " + departmentId);
@@ -80,88 +119,107 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     @Override
     @Transactional
-    public Department updateDepartment(Long departmentId, Department department) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENTS, key = "#departmentId"),
+            // Cached students/teachers embed their department and its college
+            @CacheEvict(cacheNames = {CacheConfig.STUDENTS_BY_EMAIL, CacheConfig.STUDENTS_BY_NAME, CacheConfig.TEACHERS_BY_NAME}, allEntries = true)
+    })
+    public Department updateDepartment(Long departmentId, Department department, Long expectedVersion, boolean returnBody) {
         logger.info("Updating department with ID: {}", departmentId);
-        Department existingDepartment = departmentRepository.findById(departmentId)
-                .orElseThrow(() -> {
-                    logger.warn("Department not found for update with ID: {}", departmentId);
-                    return new ResourceNotFoundException("Department not found with ID: " + departmentId);
-                });
-
-        existingDepartment.setName(department.getName());
-        existingDepartment.setCode(department.getCode());
-
-        // Update associated college if provided and valid
-        if (department.getCollege() != null && department.getCollege().getCollegeId() != null) {
-            College college = collegeRepository.findById(department.getCollege().getCollegeId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "College not found with ID: " + department.getCollege().getCollegeId() + " for department update."
-                    ));
-            existingDepartment.setCollege(college); // Set managed college entity
-        } else {
-            // Decide how to handle if college is intentionally unlinked or null
-            // For a PUT, it's generally expected all fields, including associations, are provided.
+        // For a PUT, it's generally expected all fields, including associations, are provided.
+        if (department.getCollege() == null || department.getCollege().getCollegeId() == null) {
             throw new IllegalArgumentException("Department must be associated with a valid College ID during update.");
         }
-        return departmentRepository.save(existingDepartment);
+        return applyChanges(departmentId, department, expectedVersion, returnBody, "update");
     }
 
     @Override
     @Transactional
-    public Department patchDepartment(Long departmentId, Department department) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENTS, key = "#departmentId"),
+            // Cached students/teachers embed their department and its college
+            @CacheEvict(cacheNames = {CacheConfig.STUDENTS_BY_EMAIL, CacheConfig.STUDENTS_BY_NAME, CacheConfig.TEACHERS_BY_NAME}, allEntries = true)
+    })
+    public Department patchDepartment(Long departmentId, Department department, Long expectedVersion, boolean returnBody) {
         logger.info("Patching department with ID: {}", departmentId);
-        Department existingDepartment = departmentRepository.findById(departmentId)
-                .orElseThrow(() -> {
-                    logger.warn("Department not found for patch with ID: {}", departmentId);
-                    return new ResourceNotFoundException("Department not found with ID: " + departmentId);
-                });
+        return applyChanges(departmentId, department, expectedVersion, returnBody, "patch");
+    }
 
-        if (Objects.nonNull(department.getName()) && !department.getName().isEmpty()) {
-            existingDepartment.setName(department.getName());
+    // Single-statement PUT/PATCH, see StudentServiceImpl.applyChanges. A null college means "keep the current one".
+    private Department applyChanges(Long departmentId, Department changes, Long expectedVersion, boolean returnBody, String operation) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (Objects.nonNull(changes.getName()) && !changes.getName().isEmpty()) {
+            columns.put("name", changes.getName());
         }
-        if (Objects.nonNull(department.getCode()) && !department.getCode().isEmpty()) {
-            existingDepartment.setCode(department.getCode());
+        if (Objects.nonNull(changes.getCode()) && !changes.getCode().isEmpty()) {
+            columns.put("code", changes.getCode());
         }
-        // Patch associated college if provided and valid
-        if (department.getCollege() != null && department.getCollege().getCollegeId() != null) {
-            College college = collegeRepository.findById(department.getCollege().getCollegeId())
+        College college = null;
+        if (changes.getCollege() != null && changes.getCollege().getCollegeId() != null) {
+            Long collegeId = changes.getCollege().getCollegeId();
+            college = referenceDataCache.findCollege(collegeId) // Existence check, no query on a cache hit
                     .orElseThrow(() -> new ResourceNotFoundException(
-                            "College not found with ID: " + department.getCollege().getCollegeId() + " for department patch."
+                            "College not found with ID: " + collegeId + " for department " + operation + "."
                     ));
-            existingDepartment.setCollege(college);
-        } // If college is null in patch request, it means not to change the association
+            columns.put("college_college_id", collegeId);
+        }
+        Object[] previous = rowPatcher.update("department", "department_id", departmentId, expectedVersion, columns,
+                        List.of("college_college_id", "version"))
+                .orElseThrow(() -> {
+                    logger.warn("Department not found for {} with ID: {}", operation, departmentId);
+                    return Versions.noRowMatched("Department", departmentId, expectedVersion,
+                            () -> rowPatcher.findVersion("department", "department_id", departmentId));
+                });
 
-        return departmentRepository.save(existingDepartment);
+        if (columns.containsKey("college_college_id")) {
+            enrollmentCounters.departmentMoved(departmentId, ((Number) previous[0]).longValue(), (Long) columns.get("college_college_id"));
+        }
+        if (returnBody) {
+            return departmentRepository.findWithCollegeById(departmentId).orElseThrow();
+        }
+        // No read: only the id and versions for the response's ETag, the college from the reference cache
+        if (college == null) {
+            college = referenceDataCache.findCollege(((Number) previous[0]).longValue()).orElse(null);
+        }
+        return Department.builder().departmentId(departmentId).version(Versions.updatedVersion(previous[1], columns)).college(college).build();
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENTS, key = "#departmentId"),
+            // Cached students/teachers embed their department and its college
+            @CacheEvict(cacheNames = {CacheConfig.STUDENTS_BY_EMAIL, CacheConfig.STUDENTS_BY_NAME, CacheConfig.TEACHERS_BY_NAME}, allEntries = true)
+    })
     public Department deleteDepartment(Long departmentId) {
         logger.info("Deleting department with ID: {}", departmentId);
-        Department departmentToDelete = departmentRepository.findById(departmentId)
+        // The college is fetched with it: the deleted department is returned in the response, college included
+        Department departmentToDelete = departmentRepository.findWithCollegeById(departmentId)
                 .orElseThrow(() -> {
                     logger.warn("Department not found for deletion with ID: {}", departmentId);
                     return new ResourceNotFoundException("Department not found with ID: " + departmentId);
                 });
         departmentRepository.delete(departmentToDelete);
+        enrollmentCounters.departmentDeleted(departmentId);
         logger.info("Successfully deleted department with ID: {}", departmentId);
         return departmentToDelete;
     }
 
     @Override
-    public Department getDepartmentByName(String name) {
-        logger.debug("Fetching department by name: {}", name);
-        return departmentRepository.findByName(name)
-                .orElseThrow(() -> {
-                    logger.warn("Department not found with name: {}", name);
-                    return new ResourceNotFoundException("Department not found with name: " + name);
-                });
+    public List<Department> getDepartmentsByName(String name) {
+        logger.debug("Fetching departments by name: {}", name);
+        List<Department> departments = departmentRepository.findAllWithCollegeByNameNormalized(Names.normalize(name));
+        if (departments.isEmpty()) {
+            logger.warn("Department not found with name: {}", name);
+            throw new ResourceNotFoundException("Department not found with name: " + name);
+        }
+        return departments;
     }
 
     @Override
     public Department getDepartmentByCode(String code) {
         logger.debug("Fetching department by code: {}", code);
-        return departmentRepository.findByCode(code)
+        return departmentRepository.findWithCollegeByCode(code)
                 .orElseThrow(() -> {
                     logger.warn("Department not found with code: {}", code);
                     return new ResourceNotFoundException("Department not found with code: " + code);
@@ -169,9 +227,9 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     @Override
-    public List<Department> getDepartmentsByCollegeId(Long collegeId) {
+    public List<DepartmentView> getDepartmentsByCollegeId(Long collegeId) {
         logger.debug("Fetching departments by College ID: {}", collegeId);
-        List<Department> departments = departmentRepository.findByCollegeCollegeId(collegeId);
+        List<DepartmentView> departments = departmentRepository.findViewsByCollegeId(collegeId);
         if (departments.isEmpty()) {
             logger.info("No departments found for College ID: {}", collegeId);
             // Optional: throw ResourceNotFoundException here if you expect at least one
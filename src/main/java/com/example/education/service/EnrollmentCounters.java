@@ -0,0 +1,110 @@
+package com.example.education.service;
+
+import com.example.education.entity.Department;
+import com.example.education.repository.DepartmentStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Applies student/teacher headcount changes to the department_stats counters.
+// Must be called inside the writing transaction, so counters commit or roll back with the rows they count.
+// Drift from paths that bypass these calls (e.g. SQL run by hand) is corrected by StatsServiceImpl.reconcile().
+@Component
+public class EnrollmentCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentCounters.class);
+
+    private final DepartmentStatsRepository departmentStatsRepository;
+
+    public EnrollmentCounters(DepartmentStatsRepository departmentStatsRepository) {
+        this.departmentStatsRepository = departmentStatsRepository;
+    }
+
+    public void studentsAdded(Long departmentId, long count) {
+        adjust(departmentId, count, departmentStatsRepository::adjustStudentCount);
+    }
+
+    // One UPDATE per distinct department, not per row
+    public <T> void studentsAdded(Collection<T> students, Function<T, Long> departmentIdOf) {
+        countByDepartment(students, departmentIdOf).forEach(this::studentsAdded);
+    }
+
+    public <T> void studentsRemoved(Collection<T> students, Function<T, Long> departmentIdOf) {
+        countByDepartment(students, departmentIdOf).forEach((departmentId, count) -> studentsAdded(departmentId, -count));
+    }
+
+    public void studentMoved(Long fromDepartmentId, Long toDepartmentId) {
+        if (!Objects.equals(fromDepartmentId, toDepartmentId)) {
+            studentsAdded(fromDepartmentId, -1);
+            studentsAdded(toDepartmentId, 1);
+        }
+    }
+
+    public void teachersAdded(Long departmentId, long count) {
+        adjust(departmentId, count, departmentStatsRepository::adjustTeacherCount);
+    }
+
+    public <T> void teachersAdded(Collection<T> teachers, Function<T, Long> departmentIdOf) {
+        countByDepartment(teachers, departmentIdOf).forEach(this::teachersAdded);
+    }
+
+    public <T> void teachersRemoved(Collection<T> teachers, Function<T, Long> departmentIdOf) {
+        countByDepartment(teachers, departmentIdOf).forEach((departmentId, count) -> teachersAdded(departmentId, -count));
+    }
+
+    public void teacherMoved(Long fromDepartmentId, Long toDepartmentId) {
+        if (!Objects.equals(fromDepartmentId, toDepartmentId)) {
+            teachersAdded(fromDepartmentId, -1);
+            teachersAdded(toDepartmentId, 1);
+        }
+    }
+
+    // Call after the departments are flushed (save/insertAll); creates their zeroed counter rows
+    public void departmentsCreated(List<Department> departments) {
+        if (!departments.isEmpty()) {
+            departmentStatsRepository.insertMissing(departments.stream().map(Department::getDepartmentId).toList());
+        }
+    }
+
+    public void departmentMoved(Long departmentId, Long fromCollegeId, Long toCollegeId) {
+        if (!Objects.equals(fromCollegeId, toCollegeId)) {
+            departmentStatsRepository.moveToCollege(departmentId, toCollegeId);
+        }
+    }
+
+    public void departmentDeleted(Long departmentId) {
+        departmentStatsRepository.deleteRowById(departmentId);
+    }
+
+    // Drops the rows of all the college's departments at once, so a cascading delete needs no per-department update
+    public void collegeDeleted(Long collegeId) {
+        departmentStatsRepository.deleteByCollegeId(collegeId);
+    }
+
+    private void adjust(Long departmentId, long delta, CounterUpdate update) {
+        if (departmentId != null && delta != 0 && update.apply(departmentId, delta) == 0) {
+            // Department created outside the services; the next reconciliation creates and recounts the row
+            logger.warn("No counter row for department ID: {}, headcount change of {} deferred to reconciliation", departmentId, delta);
+        }
+    }
+
+    private static <T> Map<Long, Long> countByDepartment(Collection<T> rows, Function<T, Long> departmentIdOf) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (T row : rows) {
+            counts.merge(departmentIdOf.apply(row), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @FunctionalInterface
+    private interface CounterUpdate {
+        int apply(Long departmentId, long delta);
+    }
+}
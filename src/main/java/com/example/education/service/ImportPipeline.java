@@ -0,0 +1,109 @@
+package com.example.education.service;
+
+import com.example.education.dto.ChunkResult;
+import com.example.education.dto.ImportResult;
+import com.example.education.dto.RowFailure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+// Pipelined chunk writing for the streaming imports (CSV, JSON arrays). The caller parses rows and add()s them;
+// every full chunk is written by ChunkWriter on the task executor while the caller parses the next one, so
+// parsing and inserts overlap. At most one chunk is being written and one filled, which bounds memory.
+// Not thread-safe for callers: one importing thread feeds the pipeline.
+final class ImportPipeline<T> {
+
+    private final ChunkWriter chunkWriter;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+    private final UnaryOperator<T> copy;
+    private final Consumer<List<T>> saveAll;
+    private final Consumer<T> save;
+    private final long start = System.nanoTime();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final List<RowFailure> failures = new ArrayList<>(); // Guarded by itself: added by both threads
+    private final List<ChunkResult> chunks = new ArrayList<>(); // Written by one chunk at a time
+    private List<T> chunk;
+    private List<Integer> chunkIndexes;
+    private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+    private int rows;
+
+    ImportPipeline(ChunkWriter chunkWriter, Executor executor, int chunkSize, int maxReportedFailures,
+                   UnaryOperator<T> copy, Consumer<List<T>> saveAll, Consumer<T> save) {
+        this.chunkWriter = chunkWriter;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+        this.copy = copy;
+        this.saveAll = saveAll;
+        this.save = save;
+        this.chunk = new ArrayList<>(chunkSize);
+        this.chunkIndexes = new ArrayList<>(chunkSize);
+    }
+
+    // Rows seen so far, which is also the index the next row will get
+    int rows() {
+        return rows;
+    }
+
+    void add(T row) {
+        chunk.add(row);
+        chunkIndexes.add(rows++);
+        if (chunk.size() == chunkSize) {
+            flush();
+        }
+    }
+
+    // A row that could not even be turned into an entity (bad number, unknown department code, unreadable JSON)
+    void reject(String message) {
+        failed(new RowFailure(rows++, message));
+    }
+
+    // Writes the last partial chunk and waits for every write to finish
+    ImportResult finish() {
+        if (!chunk.isEmpty()) {
+            flush();
+        }
+        pending.join();
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos > 0 ? Math.round(rows * 1e10 / elapsedNanos) / 10.0 : 0; // One decimal
+        List<RowFailure> sortedFailures;
+        synchronized (failures) {
+            sortedFailures = new ArrayList<>(failures); // Rejected rows and write failures arrive out of order
+        }
+        sortedFailures.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return new ImportResult(rows, importedRows.get(), failedRows.get(), rowsPerSecond, sortedFailures, chunks);
+    }
+
+    private void flush() {
+        List<T> rowsToWrite = chunk;
+        List<Integer> indexes = chunkIndexes;
+        chunk = new ArrayList<>(chunkSize);
+        chunkIndexes = new ArrayList<>(chunkSize);
+        pending.join(); // Back-pressure: the next chunk waits until the previous one is committed
+        pending = CompletableFuture.runAsync(() -> write(rowsToWrite, indexes), executor);
+    }
+
+    private void write(List<T> rowsToWrite, List<Integer> indexes) {
+        long chunkStart = System.nanoTime();
+        int saved = chunkWriter.write(rowsToWrite, indexes::get, copy, saveAll, save, this::failed);
+        importedRows.addAndGet(saved);
+        chunks.add(new ChunkResult(indexes.get(0), rowsToWrite.size(), saved, (System.nanoTime() - chunkStart) / 1_000_000));
+    }
+
+    private void failed(RowFailure failure) {
+        failedRows.incrementAndGet();
+        synchronized (failures) {
+            if (failures.size() < maxReportedFailures) {
+                failures.add(failure);
+            }
+        }
+    }
+}
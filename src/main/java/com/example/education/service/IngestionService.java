@@ -0,0 +1,273 @@
+package com.example.education.service;
+
+import com.example.education.dto.JobStatus;
+import com.example.education.dto.RowFailure;
+import com.example.education.exception.IngestionQueueFullException;
+import com.example.education.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+// Write-behind ingestion for the /batch/async endpoints.
+// A submitted batch is split into chunks of 'chunk-size' rows that a small dedicated worker pool writes in
+// separate transactions, so neither an HTTP thread nor one giant transaction is held for the whole upload.
+// At most 'queue-capacity' accepted rows may wait to be written; a batch that does not fit is rejected with
+// 429 instead of piling up in memory. Failed rows are reported per row, see ChunkWriter.
+// On shutdown, queued chunks get 'shutdown-timeout' to be written; rows of chunks that never ran are reported as
+// failed, so no job is left QUEUED or RUNNING and no queue permit is lost.
+@Component
+public class IngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionService.class);
+
+    private final ChunkWriter chunkWriter;
+    private final ExecutorService workers;
+    private final Semaphore queuedRows; // One permit per accepted row not yet written
+    private final int queueCapacity;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+    private final int retainedJobs;
+    private final Duration shutdownTimeout;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> finishedJobIds = new ConcurrentLinkedQueue<>(); // Oldest first, trimmed to 'retainedJobs'
+
+    public IngestionService(ChunkWriter chunkWriter, MeterRegistry meterRegistry,
+                            @Value("${education.ingest.workers:2}") int workerCount,
+                            @Value("${education.ingest.queue-capacity:500000}") int queueCapacity,
+                            @Value("${education.ingest.chunk-size:1000}") int chunkSize,
+                            @Value("${education.ingest.max-reported-failures:1000}") int maxReportedFailures,
+                            @Value("${education.ingest.retained-jobs:1000}") int retainedJobs,
+                            @Value("${education.ingest.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        this.chunkWriter = chunkWriter;
+        this.workers = Executors.newFixedThreadPool(workerCount, new CustomizableThreadFactory("ingest-"));
+        this.queuedRows = new Semaphore(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+        this.retainedJobs = retainedJobs;
+        this.shutdownTimeout = shutdownTimeout;
+        Gauge.builder("education.ingest.queued.rows", queuedRows, permits -> queueCapacity - permits.availablePermits())
+                .description("Rows accepted by the async batch endpoints and not yet written")
+                .register(meterRegistry);
+    }
+
+    // Queues 'rows' and returns at once; the chunks are written by ChunkWriter.write(), see there for the arguments
+    public <T> JobStatus submit(String entity, List<T> rows, UnaryOperator<T> copy,
+                                Consumer<List<T>> saveAll, Consumer<T> save) {
+        if (rows.size() > queueCapacity) {
+            throw new IllegalArgumentException("A batch of " + rows.size() + " rows exceeds the ingestion queue capacity of "
+                    + queueCapacity + " rows, split it into smaller batches.");
+        }
+        if (!queuedRows.tryAcquire(rows.size())) {
+            throw new IngestionQueueFullException("The ingestion queue is full (" + queueCapacity
+                    + " rows), retry the batch later.");
+        }
+        int chunks = (rows.size() + chunkSize - 1) / chunkSize;
+        Job job = new Job(UUID.randomUUID().toString(), entity, rows.size(), chunks);
+        jobs.put(job.id, job);
+        logger.info("Accepted {} batch job {} with {} rows in {} chunks", entity, job.id, rows.size(), chunks);
+        if (chunks == 0) {
+            finish(job);
+        }
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<T> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            try {
+                workers.execute(new ChunkTask<>(job, chunk, from, copy, saveAll, save));
+            } catch (RejectedExecutionException e) { // Shutting down: this and the later chunks will never run
+                logger.warn("Could not queue rows {} to {} of {} batch job {}: the ingestion workers are shutting down",
+                        from, rows.size() - 1, entity, job.id);
+                for (int rejected = from; rejected < rows.size(); rejected += chunkSize) {
+                    abandon(job, rejected, Math.min(chunkSize, rows.size() - rejected));
+                }
+                break;
+            }
+        }
+        return job.toStatus();
+    }
+
+    public JobStatus getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Job not found with ID: " + jobId);
+        }
+        return job.toStatus();
+    }
+
+    // Lets the workers drain the queue for up to 'shutdown-timeout', then interrupts them. Chunks still queued at
+    // that point are reported as failed rows of their jobs.
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (workers.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Stop waiting, but still account for the queued chunks
+        }
+        List<Runnable> neverRun = workers.shutdownNow();
+        logger.warn("Ingestion workers did not finish within {}, abandoning {} queued chunks", shutdownTimeout, neverRun.size());
+        for (Runnable task : neverRun) {
+            if (task instanceof ChunkTask<?> chunk) {
+                abandon(chunk.job, chunk.offset, chunk.rows.size());
+            }
+        }
+    }
+
+    // A chunk that will never be written: its rows fail, and its permits and its share of the job are released
+    private void abandon(Job job, int offset, int rows) {
+        for (int i = 0; i < rows; i++) {
+            job.failed(new RowFailure(offset + i, "Not written: the service shut down before this row was processed"));
+        }
+        queuedRows.release(rows);
+        if (job.chunkDone()) {
+            finish(job);
+        }
+    }
+
+    // A named task rather than a lambda, so shutdown() can tell which job a never-run chunk belongs to
+    private final class ChunkTask<T> implements Runnable {
+        private final Job job;
+        private final List<T> rows;
+        private final int offset;
+        private final UnaryOperator<T> copy;
+        private final Consumer<List<T>> saveAll;
+        private final Consumer<T> save;
+
+        ChunkTask(Job job, List<T> rows, int offset, UnaryOperator<T> copy, Consumer<List<T>> saveAll, Consumer<T> save) {
+            this.job = job;
+            this.rows = rows;
+            this.offset = offset;
+            this.copy = copy;
+            this.saveAll = saveAll;
+            this.save = save;
+        }
+
+        @Override
+        public void run() {
+            job.started();
+            try {
+                job.succeeded(chunkWriter.write(rows, i -> offset + i, copy, saveAll, save, job::failed));
+            } finally {
+                queuedRows.release(rows.size());
+                if (job.chunkDone()) {
+                    finish(job);
+                }
+            }
+        }
+    }
+
+    private void finish(Job job) {
+        job.finished();
+        JobStatus status = job.toStatus();
+        logger.info("Finished {} batch job {}: {} saved, {} failed, {} rows/s", job.entity, job.id,
+                status.getSucceededRows(), status.getFailedRows(), status.getRowsPerSecond());
+        finishedJobIds.add(job.id);
+        while (finishedJobIds.size() > retainedJobs) {
+            String expired = finishedJobIds.poll();
+            if (expired != null) {
+                jobs.remove(expired);
+            }
+        }
+    }
+
+    // Mutable progress of one job, updated by the worker threads writing its chunks
+    private final class Job {
+        private final String id;
+        private final String entity;
+        private final long totalRows;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicInteger remainingChunks;
+        private final AtomicLong succeededRows = new AtomicLong();
+        private final AtomicLong failedRows = new AtomicLong();
+        private final List<RowFailure> failures = new ArrayList<>(); // Guarded by 'this'
+        private LocalDateTime startedAt; // Guarded by 'this', as are the timings below
+        private LocalDateTime finishedAt;
+        private long startNanos;
+        private long finishNanos;
+
+        Job(String id, String entity, long totalRows, int chunks) {
+            this.id = id;
+            this.entity = entity;
+            this.totalRows = totalRows;
+            this.remainingChunks = new AtomicInteger(chunks);
+        }
+
+        synchronized void started() {
+            if (startedAt == null) {
+                startedAt = LocalDateTime.now();
+                startNanos = System.nanoTime();
+            }
+        }
+
+        void succeeded(int rows) {
+            succeededRows.addAndGet(rows);
+        }
+
+        void failed(RowFailure failure) {
+            failedRows.incrementAndGet();
+            synchronized (this) {
+                if (failures.size() < maxReportedFailures) {
+                    failures.add(failure);
+                }
+            }
+        }
+
+        // True for the last chunk of the job
+        boolean chunkDone() {
+            return remainingChunks.decrementAndGet() == 0;
+        }
+
+        synchronized void finished() {
+            started(); // An empty batch never runs a chunk
+            finishedAt = LocalDateTime.now();
+            finishNanos = System.nanoTime();
+        }
+
+        synchronized JobStatus toStatus() {
+            long succeeded = succeededRows.get();
+            long failed = failedRows.get();
+            long processed = succeeded + failed;
+            JobStatus.State state;
+            if (finishedAt != null) {
+                state = failed == 0 ? JobStatus.State.COMPLETED : JobStatus.State.COMPLETED_WITH_FAILURES;
+            } else {
+                state = startedAt == null ? JobStatus.State.QUEUED : JobStatus.State.RUNNING;
+            }
+            double rowsPerSecond = 0;
+            if (startedAt != null) {
+                long elapsedNanos = (finishedAt != null ? finishNanos : System.nanoTime()) - startNanos;
+                rowsPerSecond = elapsedNanos > 0 ? Math.round(processed * 1e10 / elapsedNanos) / 10.0 : 0; // One decimal
+            }
+            List<RowFailure> sortedFailures = new ArrayList<>(failures); // Chunks finish out of order
+            sortedFailures.sort(Comparator.comparingInt(RowFailure::getIndex));
+            return new JobStatus(id, entity, state, totalRows, processed, succeeded, failed, rowsPerSecond,
+                    submittedAt, startedAt, finishedAt, sortedFailures);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.education.service;
+
+import com.example.education.dto.ImportResult;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+// Streaming variant of the /batch endpoints (POST /students/batch/stream): the JSON array in the request body is
+// read element by element with Jackson's streaming parser instead of being bound to one List, and the rows go
+// through an ImportPipeline, so the first chunk is inserted while the rest of the body is still arriving.
+@Component
+public class JsonArrayImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonArrayImporter.class);
+
+    private final ObjectMapper objectMapper;
+    private final ChunkWriter chunkWriter;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    public JsonArrayImporter(ObjectMapper objectMapper, ChunkWriter chunkWriter, AsyncTaskExecutor taskExecutor,
+                             @Value("${education.ingest.chunk-size:1000}") int chunkSize,
+                             @Value("${education.ingest.max-reported-failures:1000}") int maxReportedFailures) {
+        this.objectMapper = objectMapper;
+        this.chunkWriter = chunkWriter;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    // Each array element is read as a tree first, so an element that does not bind to 'type' only fails its own
+    // row. Malformed JSON ends the import early: it is reported as a failure of the row being read, and the
+    // chunks committed before it stay. 'copy', 'saveAll' and 'save' are passed on to ChunkWriter.write().
+    public <T> ImportResult importRows(String entity, InputStream json, Class<T> type, UnaryOperator<T> copy,
+                                       Consumer<List<T>> saveAll, Consumer<T> save) {
+        ImportPipeline<T> pipeline = new ImportPipeline<>(chunkWriter, taskExecutor, chunkSize, maxReportedFailures,
+                copy, saveAll, save);
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                pipeline.reject("The request body must be a JSON array of " + entity + " objects");
+                return pipeline.finish();
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode element = parser.readValueAsTree();
+                T row;
+                try {
+                    row = objectMapper.treeToValue(element, type);
+                } catch (IOException | IllegalArgumentException badRow) {
+                    pipeline.reject(badRow.getMessage().lines().findFirst().orElse(""));
+                    continue;
+                }
+                if (row == null) {
+                    pipeline.reject("Array element is null");
+                } else {
+                    pipeline.add(row);
+                }
+            }
+        } catch (IOException e) {
+            pipeline.reject("Failed to read the JSON input: " + e.getMessage().lines().findFirst().orElse(""));
+        }
+        ImportResult result = pipeline.finish();
+        logger.info("Imported {} of {} {} rows from a streamed JSON array ({} failed) at {} rows/s", result.getImportedRows(),
+                result.getTotalRows(), entity, result.getFailedRows(), result.getRowsPerSecond());
+        return result;
+    }
+}
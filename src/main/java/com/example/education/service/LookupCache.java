@@ -0,0 +1,94 @@
+package com.example.education.service;
+
+import com.example.education.config.CacheConfig;
+import com.example.education.entity.Names;
+import com.example.education.entity.Student;
+import com.example.education.entity.Teacher;
+import com.example.education.repository.StudentRepository;
+import com.example.education.repository.TeacherRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Read-through cache for the email/name lookups, including negative ("not found" / no match) results.
+// Returned instances are detached and shared: use them for responses only.
+// Writers must call evictStudent/evictTeacher with the old and the new state of every row they change;
+// evictions are applied after commit (see CacheConfig).
+@Component
+public class LookupCache {
+
+    // Above this many rows a batch write clears the caches instead of evicting key by key
+    private static final int BULK_EVICTION_THRESHOLD = 1000;
+
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final CacheManager cacheManager;
+
+    public LookupCache(StudentRepository studentRepository, TeacherRepository teacherRepository,
+                       CacheManager cacheManager) {
+        this.studentRepository = studentRepository;
+        this.teacherRepository = teacherRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, key = "#email")
+    public Optional<Student> findStudentByEmail(String email) {
+        return studentRepository.findWithDepartmentByEmail(email);
+    }
+
+    // Name caches are keyed on the normalized name, matching the case-insensitive lookup
+    @Cacheable(cacheNames = CacheConfig.STUDENTS_BY_NAME, key = "T(com.example.education.entity.Names).normalize(#name)")
+    public List<Student> findStudentsByName(String name) {
+        return studentRepository.findAllWithDepartmentByNameNormalized(Names.normalize(name));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TEACHERS_BY_NAME, key = "T(com.example.education.entity.Names).normalize(#name)")
+    public List<Teacher> findTeachersByName(String name) {
+        return teacherRepository.findAllWithDepartmentByNameNormalized(Names.normalize(name));
+    }
+
+    public void evictStudent(Student student) {
+        evict(CacheConfig.STUDENTS_BY_EMAIL, student.getEmail());
+        evict(CacheConfig.STUDENTS_BY_NAME, Names.normalize(student.getName()));
+    }
+
+    public void evictStudents(Collection<Student> students) {
+        if (students.size() > BULK_EVICTION_THRESHOLD) {
+            clear(CacheConfig.STUDENTS_BY_EMAIL);
+            clear(CacheConfig.STUDENTS_BY_NAME);
+        } else {
+            students.forEach(this::evictStudent);
+        }
+    }
+
+    public void evictTeacher(Teacher teacher) {
+        evict(CacheConfig.TEACHERS_BY_NAME, Names.normalize(teacher.getName()));
+    }
+
+    public void evictTeachers(Collection<Teacher> teachers) {
+        if (teachers.size() > BULK_EVICTION_THRESHOLD) {
+            clear(CacheConfig.TEACHERS_BY_NAME);
+        } else {
+            teachers.forEach(this::evictTeacher);
+        }
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
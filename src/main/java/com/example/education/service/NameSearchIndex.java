@@ -0,0 +1,182 @@
+package com.example.education.service;
+
+import com.example.education.dto.NameSuggestion;
+import com.example.education.entity.Names;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// In-memory prefix index over names for search-as-you-type.
+// Every name is split into words; a sorted word -> entries map answers "words starting with X" with a range scan,
+// so a lookup only touches the words sharing the typed prefix instead of every name.
+// Reads are lock-free; writers are serialized so an id is never half re-indexed.
+public class NameSearchIndex {
+
+    // Hard cap on entries examined per query. Bounds the work for very common prefixes ("a"): only the first
+    // MAX_SCANNED postings in word order are ranked, which for any realistic prefix is all of them.
+    private static final int MAX_SCANNED = 20_000;
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Postings hold the entries themselves so a scan needs no second lookup per id.
+    // Both maps are swapped as a whole by rebuild(), hence volatile.
+    private volatile ConcurrentSkipListMap<String, Set<Entry>> entriesByWord = new ConcurrentSkipListMap<>();
+    private volatile Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // 'key' is the name reduced to its lower-cased words joined by single spaces
+    private record Entry(Long id, String name, String key, String[] words) {
+    }
+
+    // Bulk load used at startup: builds fresh maps off to the side (sorting once instead of inserting
+    // word by word into the skip list) and swaps them in, so readers never see a half-built index
+    public synchronized void rebuild(Iterator<NameSuggestion> names) {
+        Map<Long, Entry> newEntries = new HashMap<>();
+        Map<String, Set<Entry>> postings = new HashMap<>();
+        while (names.hasNext()) {
+            NameSuggestion name = names.next();
+            Entry entry = newEntry(name.getId(), name.getName());
+            if (entry != null) {
+                newEntries.put(entry.id(), entry);
+                addPostings(postings, entry);
+            }
+        }
+        entriesByWord = new ConcurrentSkipListMap<>(new TreeMap<>(postings));
+        entries = new ConcurrentHashMap<>(newEntries);
+    }
+
+    public synchronized void put(Long id, String name) {
+        removeEntry(id);
+        Entry entry = newEntry(id, name);
+        if (entry != null) {
+            entries.put(id, entry);
+            addPostings(entriesByWord, entry);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        removeEntry(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Every word of the query must prefix-match a word of the name ("ali smi" finds "Dr. Alice Smith").
+    // Ranking: whole name starts with the query, then first word matches, then any word; shorter names first.
+    public List<NameSuggestion> search(String query, int limit) {
+        String[] terms = words(Names.normalize(query));
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        String queryKey = String.join(" ", terms);
+        String driver = terms[0];
+        for (String term : terms) {
+            if (term.length() > driver.length()) {
+                driver = term; // the longest term has the narrowest range
+            }
+        }
+
+        // Best 'limit' matches so far, worst on top, so each match costs O(log limit) and memory stays at 'limit'
+        String firstTerm = terms[0];
+        Comparator<Entry> ranking = Comparator.<Entry>comparingInt(e -> rank(e, queryKey, firstTerm))
+                .thenComparingInt(e -> e.key().length())
+                .thenComparing(Entry::key)
+                .thenComparing(Entry::id);
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        Set<Entry> matched = new HashSet<>(); // A name with several words in the range is in several postings
+        int scanned = 0;
+        scan:
+        for (Set<Entry> posting : entriesByWord.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+            for (Entry entry : posting) {
+                if (matchesAllTerms(entry, terms) && matched.add(entry)) {
+                    best.add(entry);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+                if (++scanned >= MAX_SCANNED) {
+                    break scan;
+                }
+            }
+        }
+
+        return best.stream()
+                .sorted(ranking)
+                .map(e -> new NameSuggestion(e.id(), e.name()))
+                .toList();
+    }
+
+    private static Entry newEntry(Long id, String name) {
+        if (name == null) {
+            return null;
+        }
+        String[] words = words(Names.normalize(name));
+        return new Entry(id, name, String.join(" ", words), words);
+    }
+
+    private static void addPostings(Map<String, Set<Entry>> postings, Entry entry) {
+        for (String word : entry.words()) {
+            postings.computeIfAbsent(word, w -> ConcurrentHashMap.newKeySet(2)).add(entry); // most words are rare
+        }
+    }
+
+    private void removeEntry(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String word : previous.words()) {
+            entriesByWord.computeIfPresent(word, (w, posting) -> {
+                posting.remove(previous);
+                return posting.isEmpty() ? null : posting;
+            });
+        }
+    }
+
+    private static int rank(Entry entry, String queryKey, String firstTerm) {
+        if (entry.key().startsWith(queryKey)) {
+            return 0;
+        }
+        return entry.words().length > 0 && entry.words()[0].startsWith(firstTerm) ? 1 : 2;
+    }
+
+    private static boolean matchesAllTerms(Entry entry, String[] terms) {
+        for (String term : terms) {
+            boolean matched = false;
+            for (String word : entry.words()) {
+                if (word.startsWith(term)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] words(String normalized) {
+        if (normalized == null || normalized.isEmpty()) {
+            return new String[0];
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.education.service;
+
+import com.example.education.dto.NameSuggestion;
+import com.example.education.entity.Student;
+import com.example.education.entity.Teacher;
+import com.example.education.repository.StudentRepository;
+import com.example.education.repository.TeacherRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Owns the typeahead indexes for student and teacher names.
+// Built once at startup, then kept current by the Student/Teacher services; changes made inside a
+// transaction are applied to the index only after it commits, so rolled back writes never show up.
+@Component
+public class NameSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameSearchService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final NameSearchIndex studentIndex = new NameSearchIndex();
+    private final NameSearchIndex teacherIndex = new NameSearchIndex();
+
+    public NameSearchService(StudentRepository studentRepository, TeacherRepository teacherRepository) {
+        this.studentRepository = studentRepository;
+        this.teacherRepository = teacherRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        try (Stream<NameSuggestion> names = studentRepository.streamNames()) {
+            studentIndex.rebuild(names.iterator());
+        }
+        try (Stream<NameSuggestion> names = teacherRepository.streamNames()) {
+            teacherIndex.rebuild(names.iterator());
+        }
+        logger.info("Built name search indexes: {} students, {} teachers in {} ms",
+                studentIndex.size(), teacherIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<NameSuggestion> searchStudents(String query, int limit) {
+        return studentIndex.search(query, clampLimit(limit));
+    }
+
+    public List<NameSuggestion> searchTeachers(String query, int limit) {
+        return teacherIndex.search(query, clampLimit(limit));
+    }
+
+    public void indexStudent(Student student) {
+        Long id = student.getStudentId();
+        String name = student.getName();
+        afterCommit(() -> studentIndex.put(id, name));
+    }
+
+    public void indexStudents(Collection<Student> students) {
+        List<NameSuggestion> names = students.stream().map(s -> new NameSuggestion(s.getStudentId(), s.getName())).toList();
+        afterCommit(() -> names.forEach(n -> studentIndex.put(n.getId(), n.getName())));
+    }
+
+    public void removeStudent(Long studentId) {
+        afterCommit(() -> studentIndex.remove(studentId));
+    }
+
+    public void removeStudents(Collection<Long> studentIds) {
+        afterCommit(() -> studentIds.forEach(studentIndex::remove));
+    }
+
+    public void indexTeacher(Teacher teacher) {
+        Long id = teacher.getTeacherId();
+        String name = teacher.getName();
+        afterCommit(() -> teacherIndex.put(id, name));
+    }
+
+    public void indexTeachers(Collection<Teacher> teachers) {
+        List<NameSuggestion> names = teachers.stream().map(t -> new NameSuggestion(t.getTeacherId(), t.getName())).toList();
+        afterCommit(() -> names.forEach(n -> teacherIndex.put(n.getId(), n.getName())));
+    }
+
+    public void removeTeacher(Long teacherId) {
+        afterCommit(() -> teacherIndex.remove(teacherId));
+    }
+
+    public void removeTeachers(Collection<Long> teacherIds) {
+        afterCommit(() -> teacherIds.forEach(teacherIndex::remove));
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
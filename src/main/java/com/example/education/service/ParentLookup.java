@@ -0,0 +1,34 @@
+package com.example.education.service;
+
+import com.example.education.exception.ResourceNotFoundException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Resolves the parent entities referenced by a batch with one IN query instead of one findById per row
+final class ParentLookup {
+
+    private ParentLookup() {
+    }
+
+    // Loads every id in 'ids' at once; fails with the complete list of missing ids rather than the first one
+    static <P> Map<Long, P> loadAll(Set<Long> ids, Function<Collection<Long>, List<P>> loader,
+                                    Function<P, Long> idOf, String parentName) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, P> parents = loader.apply(ids).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        if (parents.size() < ids.size()) {
+            Set<Long> missing = new TreeSet<>(ids);
+            missing.removeAll(parents.keySet());
+            throw new ResourceNotFoundException(parentName + " not found with IDs: " + missing);
+        }
+        return parents;
+    }
+}
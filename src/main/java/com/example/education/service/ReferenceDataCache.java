@@ -0,0 +1,39 @@
+package com.example.education.service;
+
+import com.example.education.config.CacheConfig;
+import com.example.education.entity.College;
+import com.example.education.entity.Department;
+import com.example.education.repository.CollegeRepository;
+import com.example.education.repository.DepartmentRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Cached lookups of colleges and departments for the services.
+// Returned instances are detached and shared between requests: use them as parent references or
+// read-only responses, and load through the repository when the entity itself has to be modified.
+// Entries are evicted by the College/Department service mutators (see @CacheEvict there).
+@Component
+public class ReferenceDataCache {
+
+    private final CollegeRepository collegeRepository;
+    private final DepartmentRepository departmentRepository;
+
+    public ReferenceDataCache(CollegeRepository collegeRepository, DepartmentRepository departmentRepository) {
+        this.collegeRepository = collegeRepository;
+        this.departmentRepository = departmentRepository;
+    }
+
+    // Misses are not cached, so a college created a moment ago is found on the next lookup
+    @Cacheable(cacheNames = CacheConfig.COLLEGES, key = "#collegeId", unless = "#result == null")
+    public Optional<College> findCollege(Long collegeId) {
+        return collegeRepository.findById(collegeId);
+    }
+
+    // The college is fetched with the department so the cached copy serializes without a session
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENTS, key = "#departmentId", unless = "#result == null")
+    public Optional<Department> findDepartment(Long departmentId) {
+        return departmentRepository.findWithCollegeById(departmentId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.education.service;
+
+import com.example.education.dto.CollegeStats;
+import com.example.education.dto.StatsSummary;
+import com.example.education.entity.DepartmentStats;
+
+public interface StatsService {
+    StatsSummary getStats();
+    CollegeStats getCollegeStats(Long collegeId);
+    DepartmentStats getDepartmentStats(Long departmentId);
+    int reconcile(); // Returns the number of counter rows that had drifted
+}
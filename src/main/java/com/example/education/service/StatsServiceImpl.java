@@ -0,0 +1,77 @@
+package com.example.education.service;
+
+import com.example.education.dto.CollegeStats;
+import com.example.education.dto.StatsSummary;
+import com.example.education.entity.DepartmentStats;
+import com.example.education.exception.ResourceNotFoundException;
+import com.example.education.repository.DepartmentStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Headcount reads come from the department_stats counters: a primary-key lookup per department and a
+// GROUP BY over the (few) department rows per college, never a scan of the student or teacher tables
+@Service
+public class StatsServiceImpl implements StatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsServiceImpl.class);
+
+    private final DepartmentStatsRepository departmentStatsRepository;
+    private final ReferenceDataCache referenceDataCache; // To tell an unknown college from one without departments
+
+    public StatsServiceImpl(DepartmentStatsRepository departmentStatsRepository, ReferenceDataCache referenceDataCache) {
+        this.departmentStatsRepository = departmentStatsRepository;
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    @Override
+    public StatsSummary getStats() {
+        logger.debug("Fetching headcount statistics.");
+        List<CollegeStats> colleges = departmentStatsRepository.findAllCollegeStats();
+        long departments = 0, students = 0, teachers = 0;
+        for (CollegeStats college : colleges) {
+            departments += college.getDepartmentCount();
+            students += college.getStudentCount();
+            teachers += college.getTeacherCount();
+        }
+        return new StatsSummary(departments, students, teachers, colleges);
+    }
+
+    @Override
+    public CollegeStats getCollegeStats(Long collegeId) {
+        logger.debug("Fetching headcount statistics for college ID: {}", collegeId);
+        return departmentStatsRepository.findCollegeStats(collegeId)
+                .orElseGet(() -> referenceDataCache.findCollege(collegeId)
+                        .map(college -> new CollegeStats(collegeId, 0, 0, 0))
+                        .orElseThrow(() -> new ResourceNotFoundException("College not found with ID: " + collegeId)));
+    }
+
+    @Override
+    public DepartmentStats getDepartmentStats(Long departmentId) {
+        logger.debug("Fetching headcount statistics for department ID: {}", departmentId);
+        return departmentStatsRepository.findById(departmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Department not found with ID: " + departmentId));
+    }
+
+    // Also runs at startup, which creates and fills the counters for the rows loaded from data.sql
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${education.stats.reconcile-interval:PT10M}")
+    public int reconcile() {
+        int removed = departmentStatsRepository.deleteOrphans();
+        int created = departmentStatsRepository.insertAllMissing();
+        int drifted = departmentStatsRepository.recountDrifted();
+        if (removed + drifted > 0) {
+            logger.warn("Headcount reconciliation: {} counter rows drifted, {} created, {} removed", drifted, created, removed);
+        } else if (created > 0) {
+            logger.info("Headcount reconciliation: counters consistent, {} rows created", created);
+        } else {
+            logger.debug("Headcount reconciliation: counters consistent");
+        }
+        return drifted;
+    }
+}
@@ -1,17 +1,40 @@
 package com.example.education.service;
 
+import com.example.education.dto.BatchResult;
+import com.example.education.dto.ImportResult;
+import com.example.education.dto.JobStatus;
+import com.example.education.dto.KeysetPage;
+import com.example.education.dto.NameSuggestion;
+import com.example.education.dto.StudentView;
+import com.example.education.dto.UpsertResult;
 import com.example.education.entity.Student;
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StudentService {
     Student saveStudent(Student student);
     List<Student> saveAllStudents(List<Student> students); // NEW: To save multiple students
-    List<Student> getAllStudents();
-    Student getStudentById(Long studentId);
-    Student updateStudent(Long studentId, Student student);
-    Student patchStudent(Long studentId, Student student);
+    BatchResult saveAllStudentsPartially(List<Student> students); // Saves every valid row, reports the others
+    Student upsertStudentByEmail(Student student); // Insert or update keyed on email; version 0 means inserted
+    UpsertResult upsertStudentsByEmail(List<Student> students);
+    ImportResult importStudents(Reader csv); // Streaming CSV import, committed in chunks
+    ImportResult streamStudents(InputStream json); // /batch with the JSON array parsed incrementally
+    JobStatus submitStudents(List<Student> students); // Async batch: queued and written in chunks, see IngestionService
+    List<StudentView> getAllStudents();
+    KeysetPage<StudentView> getStudentsPage(Long afterStudentId, int limit);
+    StudentView getStudentById(Long studentId);
+    // expectedVersion: from If-Match, null for none. When returnBody is false, returns only the id and versions (no read after the UPDATE)
+    Student updateStudent(Long studentId, Student student, Long expectedVersion, boolean returnBody);
+    Student patchStudent(Long studentId, Student student, Long expectedVersion, boolean returnBody);
     Student deleteStudent(Long studentId);
-    Student getStudentByName(String name);
+    int deleteStudentsByDepartmentId(Long departmentId); // Set-based, returns the number of rows deleted
+    int deleteStudentsByCollegeId(Long collegeId); // Part of the cascading college delete; leaves the counters to the caller
+    int reassignStudents(Long fromDepartmentId, Long toDepartmentId); // Set-based, returns the number of rows moved
+    List<NameSuggestion> searchStudents(String query, int limit); // Typeahead: ranked top-K name matches
+    List<Student> getStudentsByName(String name); // Case-insensitive; names are not unique
     Student getStudentByEmail(String email);
-    List<Student> getStudentsByDepartmentId(Long departmentId);
+    List<StudentView> getStudentsByDepartmentId(Long departmentId);
+    long exportStudents(Consumer<Student> sink); // Streams every student to the sink, returns the row count
 }
\ No newline at end of file
@@ -1,18 +1,44 @@
 package com.example.education.service;
 
+import com.example.education.dto.BatchResult;
+import com.example.education.dto.ImportResult;
+import com.example.education.dto.JobStatus;
+import com.example.education.dto.KeysetPage;
+import com.example.education.dto.StudentView;
+import com.example.education.dto.UpsertResult;
+import com.example.education.dto.NameSuggestion;
+import com.example.education.dto.RowFailure;
 import com.example.education.entity.Department; // Import Department entity
 import com.example.education.entity.Student;
 import com.example.education.exception.ResourceNotFoundException;
 import com.example.education.repository.DepartmentRepository; // Import DepartmentRepository
+import com.example.education.repository.RowPatcher;
+import com.example.education.repository.StudentMerger;
 import com.example.education.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class StudentServiceImpl implements StudentService {
@@ -21,10 +47,42 @@ public class StudentServiceImpl implements StudentService {
 
     private final StudentRepository studentRepository;
     private final DepartmentRepository departmentRepository; // Needed to fetch associated Department
+    private final EntityManager entityManager; // Needed to clear the persistence context while exporting
+    private final BatchInserter batchInserter;
+    private final ReferenceDataCache referenceDataCache; // Cached Department lookups for single-row writes
+    private final LookupCache lookupCache; // Cached email/name lookups, evicted on every student write
+    private final NameSearchService nameSearchService; // Typeahead index, updated on every student write
+    private final EnrollmentCounters enrollmentCounters; // Per-department headcounts, adjusted in the same transaction
+    private final RowPatcher rowPatcher; // Single-statement PUT/PATCH
+    private final IngestionService ingestionService; // Async /batch/async jobs
+    private final CsvImporter csvImporter; // POST /students/import
+    private final JsonArrayImporter jsonArrayImporter; // POST /students/batch/stream
+    private final ChunkWriter chunkWriter; // POST /students/batch?partial=true
+    private final StudentMerger studentMerger; // PUT /students/by-email
+    private final Validator validator; // Row-by-row validation of the upsert batch
 
-    public StudentServiceImpl(StudentRepository studentRepository, DepartmentRepository departmentRepository) {
+    public StudentServiceImpl(StudentRepository studentRepository, DepartmentRepository departmentRepository,
+                              EntityManager entityManager, BatchInserter batchInserter,
+                              ReferenceDataCache referenceDataCache, LookupCache lookupCache,
+                              NameSearchService nameSearchService, EnrollmentCounters enrollmentCounters,
+                              RowPatcher rowPatcher, IngestionService ingestionService,
+                              CsvImporter csvImporter, JsonArrayImporter jsonArrayImporter,
+                              ChunkWriter chunkWriter, StudentMerger studentMerger, Validator validator) {
         this.studentRepository = studentRepository;
         this.departmentRepository = departmentRepository;
+        this.entityManager = entityManager;
+        this.batchInserter = batchInserter;
+        this.referenceDataCache = referenceDataCache;
+        this.lookupCache = lookupCache;
+        this.nameSearchService = nameSearchService;
+        this.enrollmentCounters = enrollmentCounters;
+        this.rowPatcher = rowPatcher;
+        this.ingestionService = ingestionService;
+        this.csvImporter = csvImporter;
+        this.jsonArrayImporter = jsonArrayImporter;
+        this.chunkWriter = chunkWriter;
+        this.studentMerger = studentMerger;
+        this.validator = validator;
     }
 
     @Override
@@ -33,7 +91,7 @@ public class StudentServiceImpl implements StudentService {
         logger.info("Saving single student: {}", student.getName());
         // Ensure the associated Department exists before saving the Student
         if (student.getDepartment() != null && student.getDepartment().getDepartmentId() != null) {
-            Department department = departmentRepository.findById(student.getDepartment().getDepartmentId())
+            Department department = referenceDataCache.findDepartment(student.getDepartment().getDepartmentId())
                     .orElseThrow(() -> new ResourceNotFoundException(
                             "Department not found with ID: " + student.getDepartment().getDepartmentId() + " for student " + student.getName()
                     ));
@@ -41,37 +99,139 @@ public class StudentServiceImpl implements StudentService {
         } else {
             throw new IllegalArgumentException("Student must be associated with a valid Department ID.");
         }
-        return studentRepository.save(student);
+        lookupCache.evictStudent(student); // Drops a cached "not found" for the new email/name
+        Student savedStudent = studentRepository.save(student);
+        enrollmentCounters.studentsAdded(departmentIdOf(savedStudent), 1);
+        nameSearchService.indexStudent(savedStudent);
+        return savedStudent;
     }
 
     @Override
     @Transactional
     public List<Student> saveAllStudents(List<Student> students) {
         logger.info("Saving multiple students. Count: {}", students.size());
+        Set<Long> departmentIds = new HashSet<>();
         for (Student student : students) {
             if (student.getDepartment() != null && student.getDepartment().getDepartmentId() != null) {
-                Department department = departmentRepository.findById(student.getDepartment().getDepartmentId())
-                        .orElseThrow(() -> new ResourceNotFoundException(
-                                "Department not found with ID: " + student.getDepartment().getDepartmentId() + " for student " + student.getName()
-                        ));
-                student.setDepartment(department); // Set the managed Department entity
+                departmentIds.add(student.getDepartment().getDepartmentId());
             } else {
                 throw new IllegalArgumentException("Each student in the list must be associated with a valid Department ID.");
             }
         }
-        return studentRepository.saveAll(students);
+        // One IN query for all distinct departments instead of a findById per row
+        Map<Long, Department> departments = ParentLookup.loadAll(departmentIds,
+                departmentRepository::findAllWithCollegeByIdIn, Department::getDepartmentId, "Department");
+        for (Student student : students) {
+            student.setDepartment(departments.get(student.getDepartment().getDepartmentId())); // Set the managed Department entity
+        }
+        lookupCache.evictStudents(students);
+        List<Student> savedStudents = batchInserter.insertAll(students); // JDBC-batched inserts with periodic flush/clear
+        enrollmentCounters.studentsAdded(savedStudents, student -> student.getDepartment().getDepartmentId());
+        nameSearchService.indexStudents(savedStudents);
+        return savedStudents;
+    }
+
+    @Override
+    public BatchResult saveAllStudentsPartially(List<Student> students) {
+        logger.info("Saving multiple students with partial success. Count: {}", students.size());
+        Map<Integer, String> rejected = preCheck(students, true);
+        logger.debug("Pre-checks rejected {} of {} students", rejected.size(), students.size());
+        // The remaining rows are validated and committed in chunks, a failing chunk is retried row by row
+        BatchResult result = chunkWriter.writePartially(students, rejected, Student::getStudentId,
+                StudentServiceImpl::unsavedCopy, this::saveAllStudents, this::saveStudent);
+        logger.info("Saved {} of {} students, {} failed", result.getSavedRows(), students.size(), result.getFailedRows());
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public Student upsertStudentByEmail(Student student) {
+        logger.info("Upserting student by email: {}", student.getEmail());
+        Long departmentId = departmentIdOf(student);
+        if (departmentId == null) {
+            throw new IllegalArgumentException("Student must be associated with a valid Department ID.");
+        }
+        referenceDataCache.findDepartment(departmentId) // Existence check, no query on a cache hit
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Department not found with ID: " + departmentId + " for student " + student.getName()));
+        Student row = unsavedCopy(student);
+        applyUpserts(List.of(row));
+        return studentRepository.findWithDepartmentById(row.getStudentId()).orElseThrow();
+    }
+
+    @Override
+    @Transactional
+    public UpsertResult upsertStudentsByEmail(List<Student> students) {
+        logger.info("Upserting multiple students by email. Count: {}", students.size());
+        Map<Integer, String> rejected = preCheck(students, false);
+        List<Student> rows = new ArrayList<>(students.size());
+        for (int i = 0; i < students.size(); i++) {
+            if (rejected.containsKey(i)) {
+                continue;
+            }
+            Set<ConstraintViolation<Student>> violations = validator.validate(students.get(i));
+            if (violations.isEmpty()) {
+                rows.add(unsavedCopy(students.get(i)));
+            } else {
+                rejected.put(i, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+        int updated = applyUpserts(rows);
+        List<RowFailure> failures = new ArrayList<>(rejected.size());
+        rejected.forEach((index, reason) -> failures.add(new RowFailure(index, reason)));
+        failures.sort(Comparator.comparingInt(RowFailure::getIndex));
+        logger.info("Upserted {} students: {} inserted, {} updated, {} failed",
+                rows.size(), rows.size() - updated, updated, failures.size());
+        return new UpsertResult(rows.size() - updated, updated, failures.size(), failures);
+    }
+
+    @Override
+    public ImportResult streamStudents(InputStream json) {
+        logger.info("Importing students from a streamed JSON array.");
+        // Same rows and write path as POST /students/batch, bound one array element at a time
+        return jsonArrayImporter.importRows("Student", json, Student.class, StudentServiceImpl::unsavedCopy, this::saveAllStudents, this::saveStudent);
+    }
+
+    @Override
+    public ImportResult importStudents(Reader csv) {
+        logger.info("Importing students from CSV.");
+        // Columns: name, email and departmentId or departmentCode; chunks go through the POST /students/batch path
+        return csvImporter.importRows("Student", csv, (row, department) -> Student.builder()
+                .name(row.get("name"))
+                .email(row.get("email"))
+                .department(department)
+                .build(), StudentServiceImpl::unsavedCopy, this::saveAllStudents, this::saveStudent);
+    }
+
+    @Override
+    public JobStatus submitStudents(List<Student> students) {
+        logger.info("Queueing students for asynchronous saving. Count: {}", students.size());
+        // Each chunk runs through the same path as POST /students/batch, inside a transaction opened by the worker
+        return ingestionService.submit("Student", students, StudentServiceImpl::unsavedCopy, this::saveAllStudents, this::saveStudent);
     }
 
     @Override
-    public List<Student> getAllStudents() {
+    public List<StudentView> getAllStudents() {
         logger.debug("Fetching all students.");
-        return studentRepository.findAll();
+        return studentRepository.findAllViews();
     }
 
     @Override
-    public Student getStudentById(Long studentId) {
+    public KeysetPage<StudentView> getStudentsPage(Long afterStudentId, int limit) {
+        int pageSize = KeysetPage.clampLimit(limit);
+        logger.debug("Fetching students after ID: {}, limit: {}", afterStudentId, pageSize);
+        // Ask for one extra row so we know whether a next page exists without a COUNT query
+        List<StudentView> rows = studentRepository.findViewPageAfter(KeysetPage.startAfter(afterStudentId), Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, StudentView::getStudentId);
+    }
+
+    @Override
+    public StudentView getStudentById(Long studentId) {
         logger.debug("Fetching student by ID: {}", studentId);
-        return studentRepository.findById(studentId)
+        return studentRepository.findViewById(studentId)
                 .orElseThrow(() -> {
                     logger.warn("Student not found with ID: {}", studentId);
                     return new ResourceNotFoundException("Student not found with ID: " + studentId);
@@ -80,84 +240,157 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     @Transactional
-    public Student updateStudent(Long studentId, Student student) {
+    public Student updateStudent(Long studentId, Student student, Long expectedVersion, boolean returnBody) {
         logger.info("Updating student with ID: {}", studentId);
-        Student existingStudent = studentRepository.findById(studentId)
-                .orElseThrow(() -> {
-                    logger.warn("Student not found for update with ID: {}", studentId);
-                    return new ResourceNotFoundException("Student not found with ID: " + studentId);
-                });
-
-        existingStudent.setName(student.getName());
-        existingStudent.setEmail(student.getEmail());
-
-        if (student.getDepartment() != null && student.getDepartment().getDepartmentId() != null) {
-            Department department = departmentRepository.findById(student.getDepartment().getDepartmentId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Department not found with ID: " + student.getDepartment().getDepartmentId() + " for student update."
-                    ));
-            existingStudent.setDepartment(department);
-        } else {
+        if (student.getDepartment() == null || student.getDepartment().getDepartmentId() == null) {
             throw new IllegalArgumentException("Student must be associated with a valid Department ID during update.");
         }
-        return studentRepository.save(existingStudent);
+        return applyChanges(studentId, student, expectedVersion, returnBody, "update");
     }
 
     @Override
     @Transactional
-    public Student patchStudent(Long studentId, Student student) {
+    public Student patchStudent(Long studentId, Student student, Long expectedVersion, boolean returnBody) {
         logger.info("Patching student with ID: {}", studentId);
-        Student existingStudent = studentRepository.findById(studentId)
-                .orElseThrow(() -> {
-                    logger.warn("Student not found for patch with ID: {}", studentId);
-                    return new ResourceNotFoundException("Student not found with ID: " + studentId);
-                });
+        return applyChanges(studentId, student, expectedVersion, returnBody, "patch");
+    }
 
-        if (Objects.nonNull(student.getName()) && !student.getName().isEmpty()) {
-            existingStudent.setName(student.getName());
+    // Shared by PUT and PATCH: the non-empty fields become one UPDATE of just those columns (see RowPatcher),
+    // which also hands back the previous name/email/department for the caches, the name index and the counters
+    private Student applyChanges(Long studentId, Student changes, Long expectedVersion, boolean returnBody, String operation) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (Objects.nonNull(changes.getName()) && !changes.getName().isEmpty()) {
+            columns.put("name", changes.getName());
         }
-        if (Objects.nonNull(student.getEmail()) && !student.getEmail().isEmpty()) {
-            existingStudent.setEmail(student.getEmail());
+        if (Objects.nonNull(changes.getEmail()) && !changes.getEmail().isEmpty()) {
+            columns.put("email", changes.getEmail());
         }
-        if (student.getDepartment() != null && student.getDepartment().getDepartmentId() != null) {
-            Department department = departmentRepository.findById(student.getDepartment().getDepartmentId())
+        Department department = null;
+        if (changes.getDepartment() != null && changes.getDepartment().getDepartmentId() != null) {
+            Long departmentId = changes.getDepartment().getDepartmentId();
+            department = referenceDataCache.findDepartment(departmentId) // Existence check, no query on a cache hit
                     .orElseThrow(() -> new ResourceNotFoundException(
-                            "Department not found with ID: " + student.getDepartment().getDepartmentId() + " for student patch."
+                            "Department not found with ID: " + departmentId + " for student " + operation + "."
                     ));
-            existingStudent.setDepartment(department);
+            columns.put("department_department_id", departmentId);
         }
+        Object[] previous = rowPatcher.update("student", "student_id", studentId, expectedVersion, columns,
+                        List.of("name", "email", "department_department_id", "version"))
+                .orElseThrow(() -> {
+                    logger.warn("Student not found for {} with ID: {}", operation, studentId);
+                    return Versions.noRowMatched("Student", studentId, expectedVersion,
+                            () -> rowPatcher.findVersion("student", "student_id", studentId));
+                });
 
-        return studentRepository.save(existingStudent);
+        if (!columns.isEmpty()) {
+            Student before = Student.builder().studentId(studentId)
+                    .name((String) previous[0]).email((String) previous[1]).build();
+            Student after = Student.builder().studentId(studentId)
+                    .name((String) columns.getOrDefault("name", before.getName()))
+                    .email((String) columns.getOrDefault("email", before.getEmail())).build();
+            lookupCache.evictStudent(before); // Old email/name
+            lookupCache.evictStudent(after); // New email/name
+            nameSearchService.indexStudent(after);
+            if (columns.containsKey("department_department_id")) {
+                enrollmentCounters.studentMoved(((Number) previous[2]).longValue(), (Long) columns.get("department_department_id"));
+            }
+        }
+        // The only read of the request, skipped when the client does not want the body back
+        if (returnBody) {
+            return studentRepository.findWithDepartmentById(studentId).orElseThrow();
+        }
+        // No read: only the id and versions for the response's ETag, the department from the reference cache
+        if (department == null) {
+            department = referenceDataCache.findDepartment(((Number) previous[2]).longValue()).orElse(null);
+        }
+        return Student.builder().studentId(studentId).version(Versions.updatedVersion(previous[3], columns)).department(department).build();
     }
 
     @Override
     @Transactional
     public Student deleteStudent(Long studentId) {
         logger.info("Deleting student with ID: {}", studentId);
-        Student studentToDelete = studentRepository.findById(studentId)
-                .orElseThrow(() -> {
-                    logger.warn("Student not found for deletion with ID: {}", studentId);
-                    return new ResourceNotFoundException("Student not found with ID: " + studentId);
-                });
-        studentRepository.delete(studentToDelete);
+        List<Student> deleted = toSnapshots(studentRepository.deleteReturningById(studentId)); // One statement, nothing loaded
+        if (deleted.isEmpty()) {
+            logger.warn("Student not found for deletion with ID: {}", studentId);
+            throw new ResourceNotFoundException("Student not found with ID: " + studentId);
+        }
+        afterDelete(deleted, true);
+        Student deletedStudent = deleted.get(0);
+        // Response body: the cached department has its college initialized, so it serializes without a session
+        referenceDataCache.findDepartment(departmentIdOf(deletedStudent)).ifPresent(deletedStudent::setDepartment);
         logger.info("Successfully deleted student with ID: {}", studentId);
-        return studentToDelete;
+        return deletedStudent;
     }
 
     @Override
-    public Student getStudentByName(String name) {
-        logger.debug("Fetching student by name: {}", name);
-        return studentRepository.findByName(name)
-                .orElseThrow(() -> {
-                    logger.warn("Student not found with name: {}", name);
-                    return new ResourceNotFoundException("Student not found with name: " + name);
-                });
+    @Transactional
+    public int deleteStudentsByDepartmentId(Long departmentId) {
+        logger.info("Deleting all students of Department ID: {}", departmentId);
+        List<Student> deleted = toSnapshots(studentRepository.deleteReturningByDepartmentId(departmentId));
+        afterDelete(deleted, true);
+        logger.info("Deleted {} students of Department ID: {}", deleted.size(), departmentId);
+        return deleted.size();
+    }
+
+    @Override
+    @Transactional
+    public int deleteStudentsByCollegeId(Long collegeId) {
+        logger.info("Deleting all students of College ID: {}", collegeId);
+        List<Student> deleted = toSnapshots(studentRepository.deleteReturningByCollegeId(collegeId));
+        afterDelete(deleted, false); // The caller drops the college's counter rows as a whole
+        return deleted.size();
+    }
+
+    @Override
+    @Transactional
+    public int reassignStudents(Long fromDepartmentId, Long toDepartmentId) {
+        logger.info("Reassigning students from Department ID: {} to Department ID: {}", fromDepartmentId, toDepartmentId);
+        if (Objects.equals(fromDepartmentId, toDepartmentId)) {
+            throw new IllegalArgumentException("Source and target department of a reassignment must differ.");
+        }
+        referenceDataCache.findDepartment(toDepartmentId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Department not found with ID: " + toDepartmentId + " for student reassignment."
+                ));
+        List<Student> moved = toSnapshots(studentRepository.reassignReturning(fromDepartmentId, toDepartmentId));
+        lookupCache.evictStudents(moved); // Cached students embed their department
+        enrollmentCounters.studentsAdded(fromDepartmentId, -moved.size());
+        enrollmentCounters.studentsAdded(toDepartmentId, moved.size());
+        logger.info("Reassigned {} students to Department ID: {}", moved.size(), toDepartmentId);
+        return moved.size();
+    }
+
+    // Cache eviction, name index and (optionally) counters for rows removed by a set-based delete
+    private void afterDelete(List<Student> deleted, boolean adjustCounters) {
+        lookupCache.evictStudents(deleted);
+        nameSearchService.removeStudents(deleted.stream().map(Student::getStudentId).toList());
+        if (adjustCounters) {
+            enrollmentCounters.studentsRemoved(deleted, StudentServiceImpl::departmentIdOf);
+        }
+    }
+
+    @Override
+    public List<NameSuggestion> searchStudents(String query, int limit) {
+        logger.debug("Searching students by name prefix: {}", query);
+        return nameSearchService.searchStudents(query, limit);
+    }
+
+    @Override
+    public List<Student> getStudentsByName(String name) {
+        logger.debug("Fetching students by name: {}", name);
+        List<Student> students = lookupCache.findStudentsByName(name);
+        if (students.isEmpty()) {
+            logger.warn("Student not found with name: {}", name);
+            throw new ResourceNotFoundException("Student not found with name: " + name);
+        }
+        return students;
     }
 
     @Override
     public Student getStudentByEmail(String email) {
         logger.debug("Fetching student by email: {}", email);
-        return studentRepository.findByEmail(email)
+        return lookupCache.findStudentByEmail(email)
                 .orElseThrow(() -> {
                     logger.warn("Student not found with email: {}", email);
                     return new ResourceNotFoundException("Student not found with email: " + email);
@@ -165,12 +398,130 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
-    public List<Student> getStudentsByDepartmentId(Long departmentId) {
+    public List<StudentView> getStudentsByDepartmentId(Long departmentId) {
         logger.debug("Fetching students by Department ID: {}", departmentId);
-        List<Student> students = studentRepository.findByDepartmentDepartmentId(departmentId);
+        List<StudentView> students = studentRepository.findViewsByDepartmentId(departmentId);
         if (students.isEmpty()) {
             logger.info("No students found for Department ID: {}", departmentId);
         }
         return students;
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportStudents(Consumer<Student> sink) {
+        logger.info("Exporting all students.");
+        long count = 0;
+        try (Stream<Student> students = studentRepository.streamAllWithDepartment()) {
+            for (Student student : (Iterable<Student>) students::iterator) {
+                sink.accept(student);
+                // Rows already handed to the sink are not needed anymore; clearing keeps the
+                // persistence context (and therefore heap usage) flat regardless of table size
+                if (++count % StudentRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        logger.info("Exported {} students.", count);
+        return count;
+    }
+
+    // Copy of a submitted student for one write attempt, so a rolled back attempt leaves no generated id behind
+    private static Student unsavedCopy(Student student) {
+        return Student.builder()
+                .studentId(student.getStudentId())
+                .name(student.getName())
+                .email(student.getEmail())
+                .department(student.getDepartment())
+                .build();
+    }
+
+    // Rows of a batch that cannot be written, index -> reason: no or unknown department, an email used by an earlier
+    // row of the batch and, with 'rejectTakenEmails', an email that already exists in the table
+    private Map<Integer, String> preCheck(List<Student> students, boolean rejectTakenEmails) {
+        Set<String> emails = new HashSet<>();
+        for (Student student : students) {
+            if (student.getEmail() != null) {
+                emails.add(student.getEmail());
+            }
+        }
+        // One IN query each for the departments and the emails of the whole batch, instead of failing at the write
+        Set<Long> knownDepartmentIds = existingDepartmentIds(students);
+        Set<String> takenEmails = !rejectTakenEmails || emails.isEmpty() ? Set.of() : new HashSet<>(studentRepository.findExistingEmails(emails));
+        Map<String, Integer> firstRowByEmail = new HashMap<>();
+        Map<Integer, String> rejected = new HashMap<>();
+        for (int i = 0; i < students.size(); i++) {
+            Student student = students.get(i);
+            Long departmentId = departmentIdOf(student);
+            String email = student.getEmail();
+            if (departmentId == null) {
+                rejected.put(i, "Student must be associated with a valid Department ID.");
+            } else if (!knownDepartmentIds.contains(departmentId)) {
+                rejected.put(i, "Department not found with ID: " + departmentId);
+            } else if (email != null && takenEmails.contains(email)) {
+                rejected.put(i, "A student with email " + email + " already exists");
+            } else if (email != null && firstRowByEmail.putIfAbsent(email, i) != null) {
+                rejected.put(i, "Email " + email + " is already used by row " + firstRowByEmail.get(email) + " of this batch");
+            }
+        }
+        return rejected;
+    }
+
+    // MERGE keyed on email (see StudentMerger), then the same bookkeeping as inserts and updates; returns how many
+    // rows matched an existing email. Afterwards every row carries the id it was saved with.
+    private int applyUpserts(List<Student> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<String, Student> previousByEmail = new HashMap<>();
+        for (Student previous : toSnapshots(studentMerger.mergeByEmail(rows))) {
+            previousByEmail.put(previous.getEmail(), previous);
+        }
+        Map<Long, Long> headcountChanges = new HashMap<>();
+        for (Student row : rows) {
+            Student previous = previousByEmail.get(row.getEmail());
+            if (previous != null) {
+                row.setStudentId(previous.getStudentId()); // The id generated for the row was not used
+                headcountChanges.merge(departmentIdOf(previous), -1L, Long::sum);
+            }
+            headcountChanges.merge(departmentIdOf(row), 1L, Long::sum);
+        }
+        lookupCache.evictStudents(previousByEmail.values()); // Old names
+        lookupCache.evictStudents(rows);
+        nameSearchService.indexStudents(rows);
+        headcountChanges.forEach(enrollmentCounters::studentsAdded); // One UPDATE per department whose count changed
+        return previousByEmail.size();
+    }
+
+    // Ids of the departments referenced by 'rows' that exist
+    private Set<Long> existingDepartmentIds(List<Student> rows) {
+        Set<Long> departmentIds = new HashSet<>();
+        for (Student row : rows) {
+            if (departmentIdOf(row) != null) {
+                departmentIds.add(departmentIdOf(row));
+            }
+        }
+        return departmentIds.isEmpty() ? Set.of() : new HashSet<>(departmentRepository.findExistingIds(departmentIds));
+    }
+
+    // The id is read from the (possibly uninitialized) proxy without loading the department
+    private static Long departmentIdOf(Student student) {
+        return student.getDepartment() != null ? student.getDepartment().getDepartmentId() : null;
+    }
+
+    // Rows returned by the set-based statements (StudentRepository.ROW_COLUMNS) as detached snapshots;
+    // their department only carries the id
+    private static List<Student> toSnapshots(List<Object[]> rows) {
+        List<Student> students = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            students.add(Student.builder()
+                    .studentId(((Number) row[0]).longValue())
+                    .name((String) row[1])
+                    .email((String) row[2])
+                    .department(Department.builder().departmentId(((Number) row[3]).longValue()).build())
+                    .version(((Number) row[4]).longValue())
+                    .build());
+        }
+        return students;
+    }
+}
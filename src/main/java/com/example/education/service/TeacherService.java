@@ -1,17 +1,35 @@
 package com.example.education.service;
 
+import com.example.education.dto.BatchResult;
+import com.example.education.dto.ImportResult;
+import com.example.education.dto.JobStatus;
+import com.example.education.dto.KeysetPage;
+import com.example.education.dto.NameSuggestion;
+import com.example.education.dto.TeacherView;
 import com.example.education.entity.Teacher;
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.List;
 
 public interface TeacherService {
     Teacher saveTeacher(Teacher teacher);
     List<Teacher> saveAllTeachers(List<Teacher> teachers); // NEW: To save multiple teachers
-    List<Teacher> getAllTeachers();
-    Teacher getTeacherById(Long teacherId);
-    Teacher updateTeacher(Long teacherId, Teacher teacher);
-    Teacher patchTeacher(Long teacherId, Teacher teacher);
+    BatchResult saveAllTeachersPartially(List<Teacher> teachers); // Saves every valid row, reports the others
+    ImportResult importTeachers(Reader csv); // Streaming CSV import, committed in chunks
+    ImportResult streamTeachers(InputStream json); // /batch with the JSON array parsed incrementally
+    JobStatus submitTeachers(List<Teacher> teachers); // Async batch: queued and written in chunks, see IngestionService
+    List<TeacherView> getAllTeachers();
+    KeysetPage<TeacherView> getTeachersPage(Long afterTeacherId, int limit);
+    TeacherView getTeacherById(Long teacherId);
+    // expectedVersion: from If-Match, null for none. When returnBody is false, returns only the id and versions (no read after the UPDATE)
+    Teacher updateTeacher(Long teacherId, Teacher teacher, Long expectedVersion, boolean returnBody);
+    Teacher patchTeacher(Long teacherId, Teacher teacher, Long expectedVersion, boolean returnBody);
     Teacher deleteTeacher(Long teacherId);
-    Teacher getTeacherByName(String name);
+    int deleteTeachersByDepartmentId(Long departmentId); // Set-based, returns the number of rows deleted
+    int deleteTeachersByCollegeId(Long collegeId); // Part of the cascading college delete; leaves the counters to the caller
+    int reassignTeachers(Long fromDepartmentId, Long toDepartmentId); // Set-based, returns the number of rows moved
+    List<NameSuggestion> searchTeachers(String query, int limit); // Typeahead: ranked top-K name matches
+    List<Teacher> getTeachersByName(String name); // Case-insensitive; names are not unique
     List<Teacher> getTeachersByDegree(String degree);
-    List<Teacher> getTeachersByDepartmentId(Long departmentId);
+    List<TeacherView> getTeachersByDepartmentId(Long departmentId);
 }
\ No newline at end of file
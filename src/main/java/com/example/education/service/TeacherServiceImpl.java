@@ -1,18 +1,34 @@
 package com.example.education.service;
 
+import com.example.education.dto.BatchResult;
+import com.example.education.dto.ImportResult;
+import com.example.education.dto.JobStatus;
+import com.example.education.dto.KeysetPage;
+import com.example.education.dto.TeacherView;
+import com.example.education.dto.NameSuggestion;
 import com.example.education.entity.Department; // Import Department entity
 import com.example.education.entity.Teacher;
 import com.example.education.exception.ResourceNotFoundException;
 import com.example.education.repository.DepartmentRepository; // Import DepartmentRepository
+import com.example.education.repository.RowPatcher;
 import com.example.education.repository.TeacherRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TeacherServiceImpl implements TeacherService {
@@ -21,10 +37,36 @@ public class TeacherServiceImpl implements TeacherService {
 
     private final TeacherRepository teacherRepository;
     private final DepartmentRepository departmentRepository; // Needed to fetch associated Department
+    private final BatchInserter batchInserter;
+    private final ReferenceDataCache referenceDataCache; // Cached Department lookups for single-row writes
+    private final LookupCache lookupCache; // Cached name lookups, evicted on every teacher write
+    private final NameSearchService nameSearchService; // Typeahead index, updated on every teacher write
+    private final EnrollmentCounters enrollmentCounters; // Per-department headcounts, adjusted in the same transaction
+    private final RowPatcher rowPatcher; // Single-statement PUT/PATCH
+    private final IngestionService ingestionService; // Async /batch/async jobs
+    private final CsvImporter csvImporter; // POST /teachers/import
+    private final JsonArrayImporter jsonArrayImporter; // POST /teachers/batch/stream
+    private final ChunkWriter chunkWriter; // POST /teachers/batch?partial=true
 
-    public TeacherServiceImpl(TeacherRepository teacherRepository, DepartmentRepository departmentRepository) {
+    public TeacherServiceImpl(TeacherRepository teacherRepository, DepartmentRepository departmentRepository,
+                              BatchInserter batchInserter, ReferenceDataCache referenceDataCache,
+                              LookupCache lookupCache, NameSearchService nameSearchService,
+                              EnrollmentCounters enrollmentCounters, RowPatcher rowPatcher,
+                              IngestionService ingestionService,
+                              CsvImporter csvImporter, JsonArrayImporter jsonArrayImporter,
+                              ChunkWriter chunkWriter) {
         this.teacherRepository = teacherRepository;
         this.departmentRepository = departmentRepository;
+        this.batchInserter = batchInserter;
+        this.referenceDataCache = referenceDataCache;
+        this.lookupCache = lookupCache;
+        this.nameSearchService = nameSearchService;
+        this.enrollmentCounters = enrollmentCounters;
+        this.rowPatcher = rowPatcher;
+        this.ingestionService = ingestionService;
+        this.csvImporter = csvImporter;
+        this.jsonArrayImporter = jsonArrayImporter;
+        this.chunkWriter = chunkWriter;
     }
 
     @Override
@@ -33,7 +75,7 @@ public class TeacherServiceImpl implements TeacherService {
         logger.info("Saving single teacher: {}", teacher.getName());
         // Ensure the associated Department exists before saving the Teacher
         if (teacher.getDepartment() != null && teacher.getDepartment().getDepartmentId() != null) {
-            Department department = departmentRepository.findById(teacher.getDepartment().getDepartmentId())
+            Department department = referenceDataCache.findDepartment(teacher.getDepartment().getDepartmentId())
                     .orElseThrow(() -> new ResourceNotFoundException(
                             "Department not found with ID: " + teacher.getDepartment().getDepartmentId() + " for teacher " + teacher.getName()
                     ));
@@ -41,37 +83,104 @@ public class TeacherServiceImpl implements TeacherService {
         } else {
             throw new IllegalArgumentException("Teacher must be associated with a valid Department ID.");
         }
-        return teacherRepository.save(teacher);
+        lookupCache.evictTeacher(teacher); // Drops a cached "not found" for the new name
+        Teacher savedTeacher = teacherRepository.save(teacher);
+        enrollmentCounters.teachersAdded(departmentIdOf(savedTeacher), 1);
+        nameSearchService.indexTeacher(savedTeacher);
+        return savedTeacher;
     }
 
     @Override
     @Transactional
     public List<Teacher> saveAllTeachers(List<Teacher> teachers) {
         logger.info("Saving multiple teachers. Count: {}", teachers.size());
+        Set<Long> departmentIds = new HashSet<>();
         for (Teacher teacher : teachers) {
             if (teacher.getDepartment() != null && teacher.getDepartment().getDepartmentId() != null) {
-                Department department = departmentRepository.findById(teacher.getDepartment().getDepartmentId())
-                        .orElseThrow(() -> new ResourceNotFoundException(
-                                "Department not found with ID: " + teacher.getDepartment().getDepartmentId() + " for teacher " + teacher.getName()
-                        ));
-                teacher.setDepartment(department); // Set the managed Department entity
+                departmentIds.add(teacher.getDepartment().getDepartmentId());
             } else {
                 throw new IllegalArgumentException("Each teacher in the list must be associated with a valid Department ID.");
             }
         }
-        return teacherRepository.saveAll(teachers);
+        // One IN query for all distinct departments instead of a findById per row
+        Map<Long, Department> departments = ParentLookup.loadAll(departmentIds,
+                departmentRepository::findAllWithCollegeByIdIn, Department::getDepartmentId, "Department");
+        for (Teacher teacher : teachers) {
+            teacher.setDepartment(departments.get(teacher.getDepartment().getDepartmentId())); // Set the managed Department entity
+        }
+        lookupCache.evictTeachers(teachers);
+        List<Teacher> savedTeachers = batchInserter.insertAll(teachers);
+        enrollmentCounters.teachersAdded(savedTeachers, teacher -> teacher.getDepartment().getDepartmentId());
+        nameSearchService.indexTeachers(savedTeachers);
+        return savedTeachers;
+    }
+
+    @Override
+    public BatchResult saveAllTeachersPartially(List<Teacher> teachers) {
+        logger.info("Saving multiple teachers with partial success. Count: {}", teachers.size());
+        // One IN query for the departments of the whole batch, instead of failing at the INSERT
+        Set<Long> knownDepartmentIds = existingDepartmentIds(teachers);
+        Map<Integer, String> rejected = new HashMap<>();
+        for (int i = 0; i < teachers.size(); i++) {
+            Long departmentId = departmentIdOf(teachers.get(i));
+            if (departmentId == null) {
+                rejected.put(i, "Teacher must be associated with a valid Department ID.");
+            } else if (!knownDepartmentIds.contains(departmentId)) {
+                rejected.put(i, "Department not found with ID: " + departmentId);
+            }
+        }
+        logger.debug("Pre-checks rejected {} of {} teachers", rejected.size(), teachers.size());
+        // The remaining rows are validated and committed in chunks, a failing chunk is retried row by row
+        BatchResult result = chunkWriter.writePartially(teachers, rejected, Teacher::getTeacherId,
+                TeacherServiceImpl::unsavedCopy, this::saveAllTeachers, this::saveTeacher);
+        logger.info("Saved {} of {} teachers, {} failed", result.getSavedRows(), teachers.size(), result.getFailedRows());
+        return result;
+    }
+
+    @Override
+    public ImportResult streamTeachers(InputStream json) {
+        logger.info("Importing teachers from a streamed JSON array.");
+        // Same rows and write path as POST /teachers/batch, bound one array element at a time
+        return jsonArrayImporter.importRows("Teacher", json, Teacher.class, TeacherServiceImpl::unsavedCopy, this::saveAllTeachers, this::saveTeacher);
     }
 
     @Override
-    public List<Teacher> getAllTeachers() {
+    public ImportResult importTeachers(Reader csv) {
+        logger.info("Importing teachers from CSV.");
+        // Columns: name, degree and departmentId or departmentCode; chunks go through the POST /teachers/batch path
+        return csvImporter.importRows("Teacher", csv, (row, department) -> Teacher.builder()
+                .name(row.get("name"))
+                .degree(row.get("degree"))
+                .department(department)
+                .build(), TeacherServiceImpl::unsavedCopy, this::saveAllTeachers, this::saveTeacher);
+    }
+
+    @Override
+    public JobStatus submitTeachers(List<Teacher> teachers) {
+        logger.info("Queueing teachers for asynchronous saving. Count: {}", teachers.size());
+        // Each chunk runs through the same path as POST /teachers/batch, inside a transaction opened by the worker
+        return ingestionService.submit("Teacher", teachers, TeacherServiceImpl::unsavedCopy, this::saveAllTeachers, this::saveTeacher);
+    }
+
+    @Override
+    public List<TeacherView> getAllTeachers() {
         logger.debug("Fetching all teachers.");
-        return teacherRepository.findAll();
+        return teacherRepository.findAllViews();
     }
 
     @Override
-    public Teacher getTeacherById(Long teacherId) {
+    public KeysetPage<TeacherView> getTeachersPage(Long afterTeacherId, int limit) {
+        int pageSize = KeysetPage.clampLimit(limit);
+        logger.debug("Fetching teachers after ID: {}, limit: {}", afterTeacherId, pageSize);
+        // Ask for one extra row so we know whether a next page exists without a COUNT query
+        List<TeacherView> rows = teacherRepository.findViewPageAfter(KeysetPage.startAfter(afterTeacherId), Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, TeacherView::getTeacherId);
+    }
+
+    @Override
+    public TeacherView getTeacherById(Long teacherId) {
         logger.debug("Fetching teacher by ID: {}", teacherId);
-        return teacherRepository.findById(teacherId)
+        return teacherRepository.findViewById(teacherId)
                 .orElseThrow(() -> {
                     logger.warn("Teacher not found with ID: {}", teacherId);
                     return new ResourceNotFoundException("Teacher not found with ID: " + teacherId);
@@ -80,84 +189,153 @@ public class TeacherServiceImpl implements TeacherService {
 
     @Override
     @Transactional
-    public Teacher updateTeacher(Long teacherId, Teacher teacher) {
+    public Teacher updateTeacher(Long teacherId, Teacher teacher, Long expectedVersion, boolean returnBody) {
         logger.info("Updating teacher with ID: {}", teacherId);
-        Teacher existingTeacher = teacherRepository.findById(teacherId)
-                .orElseThrow(() -> {
-                    logger.warn("Teacher not found for update with ID: {}", teacherId);
-                    return new ResourceNotFoundException("Teacher not found with ID: " + teacherId);
-                });
-
-        existingTeacher.setName(teacher.getName());
-        existingTeacher.setDegree(teacher.getDegree());
-
-        if (teacher.getDepartment() != null && teacher.getDepartment().getDepartmentId() != null) {
-            Department department = departmentRepository.findById(teacher.getDepartment().getDepartmentId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Department not found with ID: " + teacher.getDepartment().getDepartmentId() + " for teacher update."
-                    ));
-            existingTeacher.setDepartment(department);
-        } else {
+        if (teacher.getDepartment() == null || teacher.getDepartment().getDepartmentId() == null) {
             throw new IllegalArgumentException("Teacher must be associated with a valid Department ID during update.");
         }
-        return teacherRepository.save(existingTeacher);
+        return applyChanges(teacherId, teacher, expectedVersion, returnBody, "update");
     }
 
     @Override
     @Transactional
-    public Teacher patchTeacher(Long teacherId, Teacher teacher) {
+    public Teacher patchTeacher(Long teacherId, Teacher teacher, Long expectedVersion, boolean returnBody) {
         logger.info("Patching teacher with ID: {}", teacherId);
-        Teacher existingTeacher = teacherRepository.findById(teacherId)
-                .orElseThrow(() -> {
-                    logger.warn("Teacher not found for patch with ID: {}", teacherId);
-                    return new ResourceNotFoundException("Teacher not found with ID: " + teacherId);
-                });
+        return applyChanges(teacherId, teacher, expectedVersion, returnBody, "patch");
+    }
 
-        if (Objects.nonNull(teacher.getName()) && !teacher.getName().isEmpty()) {
-            existingTeacher.setName(teacher.getName());
+    // Single-statement PUT/PATCH, see StudentServiceImpl.applyChanges
+    private Teacher applyChanges(Long teacherId, Teacher changes, Long expectedVersion, boolean returnBody, String operation) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (Objects.nonNull(changes.getName()) && !changes.getName().isEmpty()) {
+            columns.put("name", changes.getName());
         }
-        if (Objects.nonNull(teacher.getDegree()) && !teacher.getDegree().isEmpty()) {
-            existingTeacher.setDegree(teacher.getDegree());
+        if (Objects.nonNull(changes.getDegree()) && !changes.getDegree().isEmpty()) {
+            columns.put("degree", changes.getDegree());
         }
-        if (teacher.getDepartment() != null && teacher.getDepartment().getDepartmentId() != null) {
-            Department department = departmentRepository.findById(teacher.getDepartment().getDepartmentId())
+        Department department = null;
+        if (changes.getDepartment() != null && changes.getDepartment().getDepartmentId() != null) {
+            Long departmentId = changes.getDepartment().getDepartmentId();
+            department = referenceDataCache.findDepartment(departmentId) // Existence check, no query on a cache hit
                     .orElseThrow(() -> new ResourceNotFoundException(
-                            "Department not found with ID: " + teacher.getDepartment().getDepartmentId() + " for teacher patch."
+                            "Department not found with ID: " + departmentId + " for teacher " + operation + "."
                     ));
-            existingTeacher.setDepartment(department);
+            columns.put("department_department_id", departmentId);
         }
+        Object[] previous = rowPatcher.update("teacher", "teacher_id", teacherId, expectedVersion, columns,
+                        List.of("name", "department_department_id", "version"))
+                .orElseThrow(() -> {
+                    logger.warn("Teacher not found for {} with ID: {}", operation, teacherId);
+                    return Versions.noRowMatched("Teacher", teacherId, expectedVersion,
+                            () -> rowPatcher.findVersion("teacher", "teacher_id", teacherId));
+                });
 
-        return teacherRepository.save(existingTeacher);
+        if (!columns.isEmpty()) {
+            Teacher before = Teacher.builder().teacherId(teacherId).name((String) previous[0]).build();
+            Teacher after = Teacher.builder().teacherId(teacherId)
+                    .name((String) columns.getOrDefault("name", before.getName())).build();
+            lookupCache.evictTeacher(before); // Old name
+            lookupCache.evictTeacher(after); // New name
+            nameSearchService.indexTeacher(after);
+            if (columns.containsKey("department_department_id")) {
+                enrollmentCounters.teacherMoved(((Number) previous[1]).longValue(), (Long) columns.get("department_department_id"));
+            }
+        }
+        if (returnBody) {
+            return teacherRepository.findWithDepartmentById(teacherId).orElseThrow();
+        }
+        // No read: only the id and versions for the response's ETag, the department from the reference cache
+        if (department == null) {
+            department = referenceDataCache.findDepartment(((Number) previous[1]).longValue()).orElse(null);
+        }
+        return Teacher.builder().teacherId(teacherId).version(Versions.updatedVersion(previous[2], columns)).department(department).build();
     }
 
     @Override
     @Transactional
     public Teacher deleteTeacher(Long teacherId) {
         logger.info("Deleting teacher with ID: {}", teacherId);
-        Teacher teacherToDelete = teacherRepository.findById(teacherId)
-                .orElseThrow(() -> {
-                    logger.warn("Teacher not found for deletion with ID: {}", teacherId);
-                    return new ResourceNotFoundException("Teacher not found with ID: " + teacherId);
-                });
-        teacherRepository.delete(teacherToDelete);
+        List<Teacher> deleted = toSnapshots(teacherRepository.deleteReturningById(teacherId)); // One statement, nothing loaded
+        if (deleted.isEmpty()) {
+            logger.warn("Teacher not found for deletion with ID: {}", teacherId);
+            throw new ResourceNotFoundException("Teacher not found with ID: " + teacherId);
+        }
+        afterDelete(deleted, true);
+        Teacher deletedTeacher = deleted.get(0);
+        // Response body: the cached department has its college initialized, so it serializes without a session
+        referenceDataCache.findDepartment(departmentIdOf(deletedTeacher)).ifPresent(deletedTeacher::setDepartment);
         logger.info("Successfully deleted teacher with ID: {}", teacherId);
-        return teacherToDelete;
+        return deletedTeacher;
     }
 
     @Override
-    public Teacher getTeacherByName(String name) {
-        logger.debug("Fetching teacher by name: {}", name);
-        return teacherRepository.findByName(name)
-                .orElseThrow(() -> {
-                    logger.warn("Teacher not found with name: {}", name);
-                    return new ResourceNotFoundException("Teacher not found with name: " + name);
-                });
+    @Transactional
+    public int deleteTeachersByDepartmentId(Long departmentId) {
+        logger.info("Deleting all teachers of Department ID: {}", departmentId);
+        List<Teacher> deleted = toSnapshots(teacherRepository.deleteReturningByDepartmentId(departmentId));
+        afterDelete(deleted, true);
+        logger.info("Deleted {} teachers of Department ID: {}", deleted.size(), departmentId);
+        return deleted.size();
+    }
+
+    @Override
+    @Transactional
+    public int deleteTeachersByCollegeId(Long collegeId) {
+        logger.info("Deleting all teachers of College ID: {}", collegeId);
+        List<Teacher> deleted = toSnapshots(teacherRepository.deleteReturningByCollegeId(collegeId));
+        afterDelete(deleted, false); // The caller drops the college's counter rows as a whole
+        return deleted.size();
+    }
+
+    @Override
+    @Transactional
+    public int reassignTeachers(Long fromDepartmentId, Long toDepartmentId) {
+        logger.info("Reassigning teachers from Department ID: {} to Department ID: {}", fromDepartmentId, toDepartmentId);
+        if (Objects.equals(fromDepartmentId, toDepartmentId)) {
+            throw new IllegalArgumentException("Source and target department of a reassignment must differ.");
+        }
+        referenceDataCache.findDepartment(toDepartmentId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Department not found with ID: " + toDepartmentId + " for teacher reassignment."
+                ));
+        List<Teacher> moved = toSnapshots(teacherRepository.reassignReturning(fromDepartmentId, toDepartmentId));
+        lookupCache.evictTeachers(moved); // Cached teachers embed their department
+        enrollmentCounters.teachersAdded(fromDepartmentId, -moved.size());
+        enrollmentCounters.teachersAdded(toDepartmentId, moved.size());
+        logger.info("Reassigned {} teachers to Department ID: {}", moved.size(), toDepartmentId);
+        return moved.size();
+    }
+
+    // Cache eviction, name index and (optionally) counters for rows removed by a set-based delete
+    private void afterDelete(List<Teacher> deleted, boolean adjustCounters) {
+        lookupCache.evictTeachers(deleted);
+        nameSearchService.removeTeachers(deleted.stream().map(Teacher::getTeacherId).toList());
+        if (adjustCounters) {
+            enrollmentCounters.teachersRemoved(deleted, TeacherServiceImpl::departmentIdOf);
+        }
+    }
+
+    @Override
+    public List<NameSuggestion> searchTeachers(String query, int limit) {
+        logger.debug("Searching teachers by name prefix: {}", query);
+        return nameSearchService.searchTeachers(query, limit);
+    }
+
+    @Override
+    public List<Teacher> getTeachersByName(String name) {
+        logger.debug("Fetching teachers by name: {}", name);
+        List<Teacher> teachers = lookupCache.findTeachersByName(name);
+        if (teachers.isEmpty()) {
+            logger.warn("Teacher not found with name: {}", name);
+            throw new ResourceNotFoundException("Teacher not found with name: " + name);
+        }
+        return teachers;
     }
 
     @Override
     public List<Teacher> getTeachersByDegree(String degree) {
         logger.debug("Fetching teachers by degree: {}", degree);
-        List<Teacher> teachers = teacherRepository.findByDegree(degree);
+        List<Teacher> teachers = teacherRepository.findAllWithDepartmentByDegree(degree);
         if (teachers.isEmpty()) {
             logger.info("No teachers found with degree: {}", degree);
         }
@@ -165,12 +343,54 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
-    public List<Teacher> getTeachersByDepartmentId(Long departmentId) {
+    public List<TeacherView> getTeachersByDepartmentId(Long departmentId) {
         logger.debug("Fetching teachers by Department ID: {}", departmentId);
-        List<Teacher> teachers = teacherRepository.findByDepartmentDepartmentId(departmentId);
+        List<TeacherView> teachers = teacherRepository.findViewsByDepartmentId(departmentId);
         if (teachers.isEmpty()) {
             logger.info("No teachers found for Department ID: {}", departmentId);
         }
         return teachers;
     }
-}
\ No newline at end of file
+
+    // Copy of a submitted teacher for one write attempt, so a rolled back attempt leaves no generated id behind
+    private static Teacher unsavedCopy(Teacher teacher) {
+        return Teacher.builder()
+                .teacherId(teacher.getTeacherId())
+                .name(teacher.getName())
+                .degree(teacher.getDegree())
+                .department(teacher.getDepartment())
+                .build();
+    }
+
+    // Ids of the departments referenced by 'rows' that exist
+    private Set<Long> existingDepartmentIds(List<Teacher> rows) {
+        Set<Long> departmentIds = new HashSet<>();
+        for (Teacher row : rows) {
+            if (departmentIdOf(row) != null) {
+                departmentIds.add(departmentIdOf(row));
+            }
+        }
+        return departmentIds.isEmpty() ? Set.of() : new HashSet<>(departmentRepository.findExistingIds(departmentIds));
+    }
+
+    // The id is read from the (possibly uninitialized) proxy without loading the department
+    private static Long departmentIdOf(Teacher teacher) {
+        return teacher.getDepartment() != null ? teacher.getDepartment().getDepartmentId() : null;
+    }
+
+    // Rows returned by the set-based statements (TeacherRepository.ROW_COLUMNS) as detached snapshots;
+    // their department only carries the id
+    private static List<Teacher> toSnapshots(List<Object[]> rows) {
+        List<Teacher> teachers = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            teachers.add(Teacher.builder()
+                    .teacherId(((Number) row[0]).longValue())
+                    .name((String) row[1])
+                    .degree((String) row[2])
+                    .department(Department.builder().departmentId(((Number) row[3]).longValue()).build())
+                    .version(((Number) row[4]).longValue())
+                    .build());
+        }
+        return teachers;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.education.service;
+
+import com.example.education.exception.PreconditionFailedException;
+import com.example.education.exception.ResourceNotFoundException;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Error reporting for the versioned single-statement updates (see RowPatcher): an UPDATE guarded by
+// 'WHERE id = ? AND version = ?' that matched no row means either a missing row (404) or a stale If-Match (412).
+final class Versions {
+
+    private Versions() {
+    }
+
+    // 'expected' is null when the client sent no precondition; the current version is only read in that case
+    static RuntimeException noRowMatched(String entityName, Long id, Long expected, Supplier<Optional<Long>> currentVersion) {
+        Optional<Long> current = expected == null ? Optional.empty() : currentVersion.get();
+        if (current.isEmpty()) {
+            return new ResourceNotFoundException(entityName + " not found with ID: " + id);
+        }
+        return new PreconditionFailedException(
+                entityName + " with ID: " + id + " is at version " + current.get() + ", not " + expected);
+    }
+
+    // Version of the row after a RowPatcher.update() that returned its previous version; no columns, no bump
+    static long updatedVersion(Object previousVersion, Map<String, Object> columns) {
+        return ((Number) previousVersion).longValue() + (columns.isEmpty() ? 0 : 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.education.tracing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Maximum number of SQL statements a controller method may issue per request (with cold caches).
+// Checked by QueryBudgetFilter; methods without it get education.query-budget.default.
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    // For the /batch endpoints: their statement count grows with the batch (a sequence call and an INSERT
+    // batch per hibernate.jdbc.batch_size rows), so a fixed budget does not apply; the rows per
+    // statement ratio is what regresses, and tests check it with StatementCounter.assertAtMost
+    int UNBOUNDED = Integer.MAX_VALUE;
+
+    int value();
+}
@@ -0,0 +1,112 @@
+package com.example.education.tracing;
+
+import com.example.education.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+// Counts the SQL statements of each request and compares them with the endpoint's @QueryBudget.
+// Over budget: a warning is logged, and with fail-on-exceeded=true (tests) the request fails,
+// so an N+1 regression (e.g. serializing lazy associations one row at a time) cannot ship unnoticed.
+// Counts are published per endpoint as the education.request.statements distribution summary.
+// Async requests (StreamingResponseBody exports) run their queries on the MVC task executor, which this filter
+// does not see; asyncInterceptor() counts that part and checks the total once the task has finished.
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private static final String REQUEST_START = QueryBudgetFilter.class.getName() + ".requestStart";
+    private static final String STATEMENTS_BEFORE_ASYNC = QueryBudgetFilter.class.getName() + ".statementsBeforeAsync";
+    private static final String ASYNC_START = QueryBudgetFilter.class.getName() + ".asyncStart";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final int defaultBudget;
+    private final boolean failOnExceeded;
+
+    public QueryBudgetFilter(StatementCounter statementCounter, MeterRegistry meterRegistry,
+                             @Value("${education.query-budget.default:10}") int defaultBudget,
+                             @Value("${education.query-budget.fail-on-exceeded:false}") boolean failOnExceeded) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = defaultBudget;
+        this.failOnExceeded = failOnExceeded;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long before = statementCounter.current();
+        request.setAttribute(REQUEST_START, before);
+        filterChain.doFilter(request, response);
+        if (request.isAsyncStarted()) {
+            return; // Checked by asyncInterceptor() when the task has finished
+        }
+        check(request, statementCounter.current() - before);
+    }
+
+    // Register with the MVC async support (see MetricsConfig). beforeConcurrentHandling() runs on the request
+    // thread before the task is submitted; pre- and post-processing run on the executor thread around the task.
+    public CallableProcessingInterceptor asyncInterceptor() {
+        return new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object start = request.getAttribute(REQUEST_START, RequestAttributes.SCOPE_REQUEST);
+                long statements = start instanceof Long before ? statementCounter.current() - before : 0;
+                request.setAttribute(STATEMENTS_BEFORE_ASYNC, statements, RequestAttributes.SCOPE_REQUEST);
+            }
+
+            @Override
+            public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                request.setAttribute(ASYNC_START, statementCounter.current(), RequestAttributes.SCOPE_REQUEST);
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+                long statements = statementCounter.current() - (Long) request.getAttribute(ASYNC_START, RequestAttributes.SCOPE_REQUEST);
+                statements += (Long) request.getAttribute(STATEMENTS_BEFORE_ASYNC, RequestAttributes.SCOPE_REQUEST);
+                check(request.getNativeRequest(HttpServletRequest.class), statements);
+            }
+        };
+    }
+
+    private void check(HttpServletRequest request, long statements) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return; // Static resources and unmapped paths
+        }
+        String endpoint = handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+        DistributionSummary.builder("education.request.statements")
+                .description("SQL statements issued per request")
+                .tag("handler", endpoint)
+                .register(meterRegistry)
+                .record(statements);
+
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        int allowed = budget != null ? budget.value() : defaultBudget;
+        if (statements > allowed) {
+            String message = request.getMethod() + " " + request.getRequestURI() + " (" + endpoint + ") issued "
+                    + statements + " SQL statements, over its budget of " + allowed;
+            if (failOnExceeded) {
+                throw new QueryBudgetExceededException(message);
+            }
+            logger.warn(message);
+        }
+    }
+}
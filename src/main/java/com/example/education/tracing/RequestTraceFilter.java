@@ -0,0 +1,33 @@
+package com.example.education.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Delimits one trace per HTTP request. The trace covers the whole exchange, so time spent outside
+// the controller (argument binding, response serialization) shows up as the trace's untraced time.
+@Component
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private final TraceRecorder traceRecorder;
+
+    public RequestTraceFilter(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        traceRecorder.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            traceRecorder.end(request.getMethod(), request.getRequestURI(), response.getStatus());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.education.tracing;
+
+import com.example.education.exception.QueryBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Counts the SQL statements Hibernate prepares on each thread. Registered as Hibernate's
+// StatementInspector (see MetricsConfig); a JDBC batch counts once, like one round-trip.
+// Callers take the difference of current() before and after the work they want to measure.
+@Component
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>(); // Only set inside capture()
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    // Statements prepared so far on the current thread
+    public long current() {
+        return COUNT.get()[0];
+    }
+
+    // Statements issued on the current thread while running 'action'.
+    // Test usage: assertEquals(1, statementCounter.count(() -> studentService.getStudentById(id)));
+    public long count(Runnable action) {
+        long before = current();
+        action.run();
+        return current() - before;
+    }
+
+    // SQL of the statements issued on the current thread while running 'action', as Hibernate prepares it
+    // (with ? placeholders). Test usage: EXPLAIN what a repository method really sends (see IndexUsageTest).
+    public List<String> capture(Runnable action) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+
+    // Runs 'action' and fails if it issued more than 'budget' statements, to lock in a query budget in tests
+    public <T> T assertAtMost(long budget, Supplier<T> action) {
+        long before = current();
+        T result = action.get();
+        long statements = current() - before;
+        if (statements > budget) {
+            throw new QueryBudgetExceededException(
+                    "Expected at most " + budget + " SQL statements but " + statements + " were issued");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.education.tracing;
+
+import com.example.education.dto.SpanView;
+import com.example.education.dto.TraceView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Records nested span timings for the request running on the current thread and keeps the last
+// 'capacity' finished requests in a ring buffer. All buffers are allocated up front and reused,
+// so recording a span is a few array writes; objects are only created when traces are read.
+// In-flight traces come from a pool of 'concurrent-requests' buffers, taken in begin() and returned in end(),
+// so the number of request threads (e.g. one virtual thread per request) does not add buffers. A request that
+// finds the pool empty is not traced.
+@Component
+public class TraceRecorder {
+
+    private final boolean enabled;
+    private final int maxSpans;
+    private final Slot[] ring;
+    private final AtomicLong nextSlot = new AtomicLong();
+    private final BlockingQueue<Trace> freeTraces; // Array-backed, so taking and returning a buffer allocates nothing
+    private final ThreadLocal<Trace> currentTrace = new ThreadLocal<>(); // Set only between begin() and end()
+
+    public TraceRecorder(@Value("${education.tracing.enabled:true}") boolean enabled,
+                         @Value("${education.tracing.capacity:256}") int capacity,
+                         @Value("${education.tracing.max-spans:64}") int maxSpans,
+                         @Value("${education.tracing.concurrent-requests:256}") int concurrentRequests) {
+        if (capacity <= 0 || maxSpans <= 0 || concurrentRequests <= 0) {
+            throw new IllegalArgumentException("education.tracing.capacity, max-spans and concurrent-requests must be positive");
+        }
+        this.enabled = enabled;
+        this.maxSpans = maxSpans;
+        this.ring = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot(maxSpans);
+        }
+        this.freeTraces = new ArrayBlockingQueue<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            freeTraces.add(new Trace(maxSpans));
+        }
+    }
+
+    // Starts a trace on the current thread; spans are only recorded between begin() and end()
+    public void begin() {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = currentTrace.get();
+        if (trace == null) {
+            trace = freeTraces.poll();
+            if (trace == null) {
+                return; // More requests in flight than pooled buffers
+            }
+            currentTrace.set(trace);
+        }
+        trace.reset();
+    }
+
+    // Returns a span handle for exit(), or NOT_TRACED when no request is being traced on this thread
+    int enter(String name) {
+        if (!enabled) {
+            return Trace.NOT_TRACED;
+        }
+        Trace trace = currentTrace.get();
+        return trace != null ? trace.enter(name) : Trace.NOT_TRACED;
+    }
+
+    void exit(int span) {
+        if (span != Trace.NOT_TRACED) {
+            Trace trace = currentTrace.get();
+            if (trace != null) {
+                trace.exit(span);
+            }
+        }
+    }
+
+    // Finishes the current trace, copies it into the next ring buffer slot and returns its buffer to the pool
+    public void end(String method, String uri, int status) {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = currentTrace.get();
+        if (trace == null) {
+            return;
+        }
+        currentTrace.remove();
+        long totalNanos = System.nanoTime() - trace.startNanos;
+        Slot slot = ring[(int) (nextSlot.getAndIncrement() % ring.length)];
+        synchronized (slot) {
+            slot.copyFrom(trace, method, uri, status, totalNanos);
+        }
+        freeTraces.offer(trace);
+    }
+
+    // The slowest of the recently finished requests, slowest first
+    public List<TraceView> slowest(int limit) {
+        List<TraceView> traces = new ArrayList<>();
+        for (Slot slot : ring) {
+            synchronized (slot) {
+                if (slot.filled) {
+                    traces.add(slot.toView());
+                }
+            }
+        }
+        traces.sort(Comparator.comparingDouble(TraceView::getTotalMillis).reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public int getMaxSpans() {
+        return maxSpans;
+    }
+
+    // Span arrays shared by the per-thread trace and the ring buffer slots
+    private static class Spans {
+        final String[] names;
+        final int[] depths;
+        final long[] starts;    // Nanoseconds since the start of the request
+        final long[] durations; // Nanoseconds, -1 while the span is still open
+        int count;
+        int dropped;
+
+        Spans(int maxSpans) {
+            names = new String[maxSpans];
+            depths = new int[maxSpans];
+            starts = new long[maxSpans];
+            durations = new long[maxSpans];
+        }
+    }
+
+    private static final class Trace extends Spans {
+        static final int NOT_TRACED = -1;
+        static final int DROPPED = -2;
+
+        long startNanos;
+        long startEpochMillis;
+        int depth;
+
+        Trace(int maxSpans) {
+            super(maxSpans);
+        }
+
+        void reset() {
+            startNanos = System.nanoTime();
+            startEpochMillis = System.currentTimeMillis();
+            depth = 0;
+            count = 0;
+            dropped = 0;
+        }
+
+        int enter(String name) {
+            int currentDepth = depth++;
+            if (count == names.length) {
+                dropped++;
+                return DROPPED;
+            }
+            int span = count++;
+            names[span] = name;
+            depths[span] = currentDepth;
+            starts[span] = System.nanoTime() - startNanos;
+            durations[span] = -1;
+            return span;
+        }
+
+        void exit(int span) {
+            depth--;
+            if (span >= 0) {
+                durations[span] = System.nanoTime() - startNanos - starts[span];
+            }
+        }
+    }
+
+    private static final class Slot extends Spans {
+        boolean filled;
+        String method;
+        String uri;
+        int status;
+        long startEpochMillis;
+        long totalNanos;
+
+        Slot(int maxSpans) {
+            super(maxSpans);
+        }
+
+        void copyFrom(Trace trace, String method, String uri, int status, long totalNanos) {
+            System.arraycopy(trace.names, 0, names, 0, trace.count);
+            System.arraycopy(trace.depths, 0, depths, 0, trace.count);
+            System.arraycopy(trace.starts, 0, starts, 0, trace.count);
+            System.arraycopy(trace.durations, 0, durations, 0, trace.count);
+            this.count = trace.count;
+            this.dropped = trace.dropped;
+            this.filled = true;
+            this.method = method;
+            this.uri = uri;
+            this.status = status;
+            this.startEpochMillis = trace.startEpochMillis;
+            this.totalNanos = totalNanos;
+        }
+
+        TraceView toView() {
+            List<SpanView> spans = new ArrayList<>(count);
+            long tracedNanos = 0;
+            for (int i = 0; i < count; i++) {
+                long duration = durations[i] < 0 ? totalNanos - starts[i] : durations[i]; // Still open: async response
+                spans.add(new SpanView(names[i], depths[i], millis(starts[i]), millis(duration)));
+                if (depths[i] == 0) {
+                    tracedNanos += duration;
+                }
+            }
+            return new TraceView(method, uri, status, Instant.ofEpochMilli(startEpochMillis), millis(totalNanos),
+                    millis(Math.max(0, totalNanos - tracedNanos)), dropped, spans);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
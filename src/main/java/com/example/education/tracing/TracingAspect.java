@@ -0,0 +1,64 @@
+package com.example.education.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times every controller, *ServiceImpl and repository call made while a request is being traced
+// (see RequestTraceFilter). Calls outside a request, e.g. startup jobs, are not recorded.
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final TraceRecorder traceRecorder;
+
+    // Span names per target class and method, e.g. "StudentRepository.findById", built once per method
+    private final ClassValue<Map<Method, String>> spanNames = new ClassValue<>() {
+        @Override
+        protected Map<Method, String> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public TracingAspect(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)"
+            + " || execution(* com.example.education.service.*ServiceImpl.*(..))"
+            + " || execution(* com.example.education.repository.*Repository+.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        int span = traceRecorder.enter(spanName(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            traceRecorder.exit(span);
+        }
+    }
+
+    private String spanName(ProceedingJoinPoint joinPoint) {
+        Class<?> targetType = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return spanNames.get(targetType).computeIfAbsent(method, m -> typeName(targetType) + "." + m.getName());
+    }
+
+    // Repositories are JDK proxies: name them after the application interface they implement
+    private static String typeName(Class<?> targetType) {
+        if (Proxy.isProxyClass(targetType)) {
+            for (Class<?> candidate : targetType.getInterfaces()) {
+                if (candidate.getPackageName().startsWith("com.example.education")) {
+                    return candidate.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(targetType).getSimpleName();
+    }
+}
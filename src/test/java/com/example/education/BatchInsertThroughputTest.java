@@ -0,0 +1,89 @@
+package com.example.education;
+
+import com.example.education.entity.College;
+import com.example.education.entity.Department;
+import com.example.education.entity.Student;
+import com.example.education.service.BatchInserter;
+import com.example.education.service.DepartmentService;
+import com.example.education.service.StudentService;
+import com.example.education.tracing.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The JDBC-batched write path behind POST /students/batch (see BatchInserter) for a 100k-row load. Batching is
+// asserted through the statement count, which does not depend on the machine; throughput itself is measured by
+// StudentWriteBenchmark (JMH, -Pbenchmarks), not asserted here.
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=INFO", // 4000 SQL log lines
+        "spring.datasource.url=jdbc:h2:mem:throughputtest;DB_CLOSE_DELAY=-1"
+})
+class BatchInsertThroughputTest {
+
+    private static final int ROWS = 100_000;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private BatchInserter batchInserter;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Long departmentId;
+
+    @BeforeEach
+    void createDepartment() {
+        College college = new College();
+        college.setCollegeId(101L); // Seeded by data.sql
+        Department department = new Department();
+        department.setName("Throughput Department");
+        department.setCode("THRU");
+        department.setCollege(college);
+        departmentId = departmentService.saveDepartment(department).getDepartmentId();
+    }
+
+    @AfterEach
+    void deleteRows() {
+        studentService.deleteStudentsByDepartmentId(departmentId);
+        departmentService.deleteDepartment(departmentId);
+    }
+
+    @Test
+    void savesLargeBatchInJdbcBatches() {
+        List<Student> students = students("load", ROWS);
+
+        long statements = statementCounter.count(() -> studentService.saveAllStudents(students));
+
+        assertThat(students).allSatisfy(student -> assertThat(student.getStudentId()).isNotNull());
+        // One INSERT per JDBC batch plus one id block per batch (allocationSize = batch size), and a few fixed
+        // statements (department lookup, counter row); one statement per row would mean batching is off
+        int batches = (ROWS + batchInserter.getBatchSize() - 1) / batchInserter.getBatchSize();
+        assertThat(statements).isLessThanOrEqualTo(2L * batches + 10);
+    }
+
+    private List<Student> students(String prefix, int count) {
+        Department department = new Department();
+        department.setDepartmentId(departmentId);
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(Student.builder()
+                    .name("Throughput Student " + i)
+                    .email(prefix + i + "@throughput.example.com")
+                    .department(department)
+                    .build());
+        }
+        return students;
+    }
+}
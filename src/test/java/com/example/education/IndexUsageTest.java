@@ -0,0 +1,167 @@
+package com.example.education;
+
+import com.example.education.entity.Names;
+import com.example.education.repository.CollegeRepository;
+import com.example.education.repository.DepartmentRepository;
+import com.example.education.repository.DepartmentStatsRepository;
+import com.example.education.repository.StudentRepository;
+import com.example.education.repository.TeacherRepository;
+import com.example.education.tracing.StatementCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+// Checks with H2 EXPLAIN that every lookup path of the repositories is served by an index once the tables are
+// large, so a dropped @Index (or a query that stops matching one) shows up as a failed build, not a slow page.
+// The SQL explained is the one Hibernate prepares for the repository call (captured by StatementCounter).
+// The large dataset is seeded once for the class and deleted afterwards; each test is rolled back.
+@SpringBootTest
+@Transactional
+class IndexUsageTest {
+
+    private static final int COLLEGES = 100;
+    private static final int DEPARTMENTS_PER_COLLEGE = 10;
+    private static final int STUDENTS = 50_000;
+    private static final int TEACHERS = 5_000;
+    private static final long FIRST_ID = 1_000_000; // Above the seeded ids and the sequences' first blocks
+    private static final long SOME_ID = FIRST_ID + 7;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private CollegeRepository collegeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DepartmentStatsRepository departmentStatsRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @BeforeAll
+    static void seedLargeDataset(@Autowired JdbcTemplate jdbcTemplate) {
+        int departments = COLLEGES * DEPARTMENTS_PER_COLLEGE;
+        jdbcTemplate.update("INSERT INTO college (college_id, name, address)"
+                + " SELECT ? + x, 'College ' || x, 'Street ' || x FROM SYSTEM_RANGE(1, ?)", FIRST_ID, COLLEGES);
+        jdbcTemplate.update("INSERT INTO department (department_id, name, code, college_college_id)"
+                + " SELECT ? + x, 'Department ' || x, 'D' || x, ? + MOD(x, ?) + 1 FROM SYSTEM_RANGE(1, ?)",
+                FIRST_ID, FIRST_ID, COLLEGES, departments);
+        jdbcTemplate.update("INSERT INTO department_stats (department_id, college_id, student_count, teacher_count)"
+                + " SELECT department_id, college_college_id, 0, 0 FROM department WHERE department_id > ?", FIRST_ID);
+        jdbcTemplate.update("INSERT INTO student (student_id, name, email, department_department_id)"
+                + " SELECT ? + x, 'Student ' || x, 'student' || x || '@example.com', ? + MOD(x, ?) + 1"
+                + " FROM SYSTEM_RANGE(1, ?)", FIRST_ID, FIRST_ID, departments, STUDENTS);
+        jdbcTemplate.update("INSERT INTO teacher (teacher_id, name, degree, department_department_id)"
+                + " SELECT ? + x, 'Teacher ' || x, 'Degree ' || MOD(x, 50), ? + MOD(x, ?) + 1"
+                + " FROM SYSTEM_RANGE(1, ?)", FIRST_ID, FIRST_ID, departments, TEACHERS);
+    }
+
+    @AfterAll
+    static void deleteLargeDataset(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM teacher WHERE teacher_id > ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM student WHERE student_id > ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM department_stats WHERE department_id > ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM department WHERE department_id > ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM college WHERE college_id > ?", FIRST_ID);
+    }
+
+    static Stream<Arguments> lookups() {
+        return Stream.of(
+                // Name lookups on the generated normalized column
+                lookup("CollegeRepository.findByNameNormalizedOrderByCollegeId", "IDX_COLLEGE_NAME_NORMALIZED",
+                        t -> t.collegeRepository.findByNameNormalizedOrderByCollegeId("college 7")),
+                lookup("DepartmentRepository.findAllWithCollegeByNameNormalized", "IDX_DEPARTMENT_NAME_NORMALIZED",
+                        t -> t.departmentRepository.findAllWithCollegeByNameNormalized("department 7")),
+                lookup("StudentRepository.findAllWithDepartmentByNameNormalized", "IDX_STUDENT_NAME_NORMALIZED",
+                        t -> t.studentRepository.findAllWithDepartmentByNameNormalized("student 7")),
+                lookup("TeacherRepository.findAllWithDepartmentByNameNormalized", "IDX_TEACHER_NAME_NORMALIZED",
+                        t -> t.teacherRepository.findAllWithDepartmentByNameNormalized("teacher 7")),
+                // Other derived lookups
+                lookup("CollegeRepository.findByAddress", "IDX_COLLEGE_ADDRESS",
+                        t -> t.collegeRepository.findByAddress("Street 7")),
+                lookup("DepartmentRepository.findWithCollegeByCode", "IDX_DEPARTMENT_CODE",
+                        t -> t.departmentRepository.findWithCollegeByCode("D7")),
+                lookup("DepartmentRepository.findIdByCode", "IDX_DEPARTMENT_CODE",
+                        t -> t.departmentRepository.findIdByCode("D7")),
+                lookup("TeacherRepository.findAllWithDepartmentByDegree", "IDX_TEACHER_DEGREE",
+                        t -> t.teacherRepository.findAllWithDepartmentByDegree("Degree 7")),
+                // Foreign-key filters (views by department/college)
+                lookup("DepartmentRepository.findViewsByCollegeId", "IDX_DEPARTMENT_COLLEGE",
+                        t -> t.departmentRepository.findViewsByCollegeId(SOME_ID)),
+                lookup("StudentRepository.findViewsByDepartmentId", "IDX_STUDENT_DEPARTMENT",
+                        t -> t.studentRepository.findViewsByDepartmentId(SOME_ID)),
+                lookup("TeacherRepository.findViewsByDepartmentId", "IDX_TEACHER_DEPARTMENT",
+                        t -> t.teacherRepository.findViewsByDepartmentId(SOME_ID)),
+                lookup("DepartmentStatsRepository.findCollegeStats", "IDX_DEPARTMENT_STATS_COLLEGE",
+                        t -> t.departmentStatsRepository.findCollegeStats(SOME_ID)),
+                // Joins through the department to its college (college overview)
+                lookup("StudentRepository.countByDepartmentForCollege", "IDX_STUDENT_DEPARTMENT",
+                        t -> t.studentRepository.countByDepartmentForCollege(SOME_ID)),
+                lookup("TeacherRepository.findViewsByCollegeId", "IDX_TEACHER_DEPARTMENT",
+                        t -> t.teacherRepository.findViewsByCollegeId(SOME_ID)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("lookups")
+    void lookupUsesIndex(String repositoryMethod, String index, Consumer<IndexUsageTest> call) {
+        assertThat(explain(call)).contains("/* PUBLIC." + index + ":");
+    }
+
+    @Test
+    void emailLookupUsesUniqueConstraintIndex() {
+        // The index behind @Column(unique = true) is named by the database, so look it up
+        String index = jdbcTemplate.queryForObject("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS"
+                + " WHERE TABLE_NAME = 'STUDENT' AND COLUMN_NAME = 'EMAIL'", String.class);
+        assertThat(explain(t -> t.studentRepository.findWithDepartmentByEmail("student7@example.com")))
+                .contains("/* PUBLIC." + index + ":");
+        assertThat(explain(t -> t.studentRepository.findExistingEmails(List.of("student7@example.com", "student8@example.com"))))
+                .contains("/* PUBLIC." + index + ":");
+    }
+
+    @Test
+    void normalizedColumnMatchesNames() {
+        // The generated column and Names.normalize() must agree, or name lookups silently miss rows
+        String name = " \tMixed Case Name\t ";
+        jdbcTemplate.update("INSERT INTO college (college_id, name, address) VALUES (?, ?, 'Nowhere')", FIRST_ID, name);
+        String normalized = jdbcTemplate.queryForObject("SELECT name_normalized FROM college WHERE college_id = ?",
+                String.class, FIRST_ID);
+        assertThat(Names.normalize(name)).isEqualTo(normalized);
+    }
+
+    private static Arguments lookup(String repositoryMethod, String index, Consumer<IndexUsageTest> call) {
+        return arguments(repositoryMethod, index, call);
+    }
+
+    // Runs the repository call, which must issue exactly one statement, and returns H2's plan for that statement
+    private String explain(Consumer<IndexUsageTest> call) {
+        List<String> statements = statementCounter.capture(() -> call.accept(this));
+        assertThat(statements).hasSize(1);
+        String plan = jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + statements.get(0)),
+                resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+        assertThat(plan).isNotNull().doesNotContain("tableScan");
+        return plan;
+    }
+}
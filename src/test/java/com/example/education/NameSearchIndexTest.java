@@ -0,0 +1,36 @@
+package com.example.education;
+
+import com.example.education.dto.NameSuggestion;
+import com.example.education.service.NameSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameSearchIndexTest {
+
+    @Test
+    void shortestMatchComesFirstForCommonPrefix() {
+        NameSearchIndex index = new NameSearchIndex();
+        // Many longer names whose words sort before the short one, so a scan in word order meets them first
+        for (long id = 1; id <= 1_000; id++) {
+            index.put(id, "Alexander Smith " + id);
+        }
+        index.put(5_000L, "Aly");
+
+        assertThat(index.search("al", 1)).extracting(NameSuggestion::getName).containsExactly("Aly");
+        List<NameSuggestion> top3 = index.search("al", 3);
+        assertThat(top3).extracting(NameSuggestion::getName)
+                .containsExactly("Aly", "Alexander Smith 1", "Alexander Smith 2");
+    }
+
+    @Test
+    void nameWithSeveralMatchingWordsIsReturnedOnce() {
+        NameSearchIndex index = new NameSearchIndex();
+        index.put(1L, "Ann Annabel");
+        index.put(2L, "Annika Berg");
+
+        assertThat(index.search("ann", 10)).extracting(NameSuggestion::getId).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.education;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Calls every @QueryBudget endpoint with fail-on-exceeded=true: QueryBudgetFilter then throws out of
+// MockMvc.perform() for any request over its budget, so an N+1 regression fails the build.
+// Each test creates the rows it changes, so the tests do not depend on each other or on data.sql edits.
+@SpringBootTest(properties = {
+        "education.query-budget.fail-on-exceeded=true",
+        "spring.datasource.url=jdbc:h2:mem:querybudgettest;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void collegeEndpoints() throws Exception {
+        long collegeId = createCollege();
+        send(post("/colleges/batch").content("[" + collegeJson() + "," + collegeJson() + "]"), 201);
+        send(get("/colleges"), 200);
+        send(get("/colleges").param("all", "true"), 200);
+        send(get("/colleges/{id}", collegeId), 200);
+        createDepartment(collegeId);
+        send(get("/colleges/{id}/overview", collegeId), 200);
+        send(get("/colleges/name/{name}", "Engineering College A"), 200);
+        send(put("/colleges/{id}", collegeId).content(collegeJson()), 200);
+        send(patch("/colleges/{id}", collegeId).content("{\"address\":\"Patched\"}").header("Prefer", "return=minimal"), 204);
+        long departmentId = createDepartment(collegeId);
+        createStudent(departmentId);
+        createTeacher(departmentId);
+        send(delete("/colleges/{id}", collegeId), 200);
+    }
+
+    @Test
+    void departmentEndpoints() throws Exception {
+        long collegeId = createCollege();
+        long departmentId = createDepartment(collegeId);
+        send(post("/departments/batch").content("[" + departmentJson(collegeId) + "," + departmentJson(collegeId) + "]"), 201);
+        send(get("/departments"), 200);
+        send(get("/departments").param("all", "true"), 200);
+        send(get("/departments/{id}", departmentId), 200);
+        send(get("/departments/name/{name}", "Computer Science"), 200);
+        send(get("/departments/code/{code}", "CS"), 200);
+        send(get("/departments/college/{collegeId}", collegeId), 200);
+        send(put("/departments/{id}", departmentId).content(departmentJson(createCollege())), 200);
+        send(patch("/departments/{id}", departmentId).content("{\"college\":{\"collegeId\":" + collegeId + "}}"), 200);
+        createStudent(departmentId);
+        send(delete("/departments/{id}", createDepartment(collegeId)), 200);
+    }
+
+    @Test
+    void studentEndpoints() throws Exception {
+        long departmentId = createDepartment(createCollege());
+        long otherDepartmentId = createDepartment(createCollege());
+        long studentId = createStudent(departmentId);
+        send(post("/students/batch").content("[" + studentJson(departmentId) + "," + studentJson(departmentId) + "]"), 201);
+        send(post("/students/batch").param("partial", "true")
+                .content("[" + studentJson(departmentId) + "," + studentJson(-1) + "]"), 200);
+        send(post("/students/batch/stream").content("[" + studentJson(departmentId) + "]"), 200);
+        send(post("/students/import")
+                .content("name,email,departmentId\nCsv Student,csv" + SEQUENCE.incrementAndGet() + "@example.com," + departmentId + "\n"), "text/csv", 200);
+        String email = "upsert" + SEQUENCE.incrementAndGet() + "@example.com";
+        String upsert = "{\"name\":\"Upserted\",\"email\":\"" + email + "\",\"department\":{\"departmentId\":" + departmentId + "}}";
+        send(put("/students/by-email").content(upsert), 201);
+        send(put("/students/by-email").content(upsert), 200);
+        send(put("/students/by-email/batch").content("[" + upsert + "," + studentJson(departmentId) + "]"), 200);
+        String jobId = JsonPath.read(send(post("/students/batch/async").content("[" + studentJson(departmentId) + "]"), 202), "$.jobId");
+        send(get("/jobs/{id}", jobId), 200);
+        send(get("/students"), 200);
+        send(get("/students").param("all", "true"), 200);
+        MvcResult export = mockMvc.perform(get("/students/export")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk()); // Rethrows an over-budget export
+        send(get("/students/{id}", studentId), 200);
+        send(get("/students/search").param("q", "stu"), 200);
+        send(get("/students/name/{name}", "Student A"), 200);
+        send(get("/students/email/{email}", "student.a@example.com"), 200);
+        send(get("/students/department/{departmentId}", departmentId), 200);
+        send(put("/students/{id}", studentId).content(studentJson(otherDepartmentId)), 200);
+        send(patch("/students/{id}", studentId).content("{\"department\":{\"departmentId\":" + departmentId + "}}"), 200);
+        send(delete("/students/{id}", studentId), 200);
+        send(post("/students/reassign").content("{\"fromDepartmentId\":" + departmentId + ",\"toDepartmentId\":" + otherDepartmentId + "}"), 200);
+        send(delete("/students").param("departmentId", String.valueOf(otherDepartmentId)), 200);
+    }
+
+    @Test
+    void teacherEndpoints() throws Exception {
+        long departmentId = createDepartment(createCollege());
+        long otherDepartmentId = createDepartment(createCollege());
+        long teacherId = createTeacher(departmentId);
+        send(post("/teachers/batch").content("[" + teacherJson(departmentId) + "," + teacherJson(departmentId) + "]"), 201);
+        send(post("/teachers/batch").param("partial", "true")
+                .content("[" + teacherJson(departmentId) + "," + teacherJson(-1) + "]"), 200);
+        send(post("/teachers/batch/stream").content("[" + teacherJson(departmentId) + "]"), 200);
+        send(post("/teachers/import")
+                .content("name,degree,departmentId\nCsv Teacher,Ph.D.," + departmentId + "\n"), "text/csv", 200);
+        String jobId = JsonPath.read(send(post("/teachers/batch/async").content("[" + teacherJson(departmentId) + "]"), 202), "$.jobId");
+        send(get("/jobs/{id}", jobId), 200);
+        send(get("/teachers"), 200);
+        send(get("/teachers").param("all", "true"), 200);
+        send(get("/teachers/{id}", teacherId), 200);
+        send(get("/teachers/search").param("q", "tea"), 200);
+        send(get("/teachers/name/{name}", "Dr. Alice Smith"), 200);
+        send(get("/teachers/degree/{degree}", "Ph.D. CS"), 200);
+        send(get("/teachers/department/{departmentId}", departmentId), 200);
+        send(put("/teachers/{id}", teacherId).content(teacherJson(otherDepartmentId)), 200);
+        send(patch("/teachers/{id}", teacherId).content("{\"department\":{\"departmentId\":" + departmentId + "}}"), 200);
+        send(delete("/teachers/{id}", teacherId), 200);
+        send(post("/teachers/reassign").content("{\"fromDepartmentId\":" + departmentId + ",\"toDepartmentId\":" + otherDepartmentId + "}"), 200);
+        send(delete("/teachers").param("departmentId", String.valueOf(otherDepartmentId)), 200);
+    }
+
+    @Test
+    void statsEndpoints() throws Exception {
+        long collegeId = createCollege();
+        long departmentId = createDepartment(collegeId);
+        send(get("/stats"), 200);
+        send(get("/stats/colleges/{id}", collegeId), 200);
+        send(get("/stats/colleges/{id}", createCollege()), 200); // No departments: the existence check
+        send(get("/stats/departments/{id}", departmentId), 200);
+    }
+
+    private long createCollege() throws Exception {
+        return ((Number) JsonPath.read(send(post("/colleges").content(collegeJson()), 201), "$.collegeId")).longValue();
+    }
+
+    private long createDepartment(long collegeId) throws Exception {
+        return ((Number) JsonPath.read(send(post("/departments").content(departmentJson(collegeId)), 201), "$.departmentId")).longValue();
+    }
+
+    private long createStudent(long departmentId) throws Exception {
+        return ((Number) JsonPath.read(send(post("/students").content(studentJson(departmentId)), 201), "$.studentId")).longValue();
+    }
+
+    private long createTeacher(long departmentId) throws Exception {
+        return ((Number) JsonPath.read(send(post("/teachers").content(teacherJson(departmentId)), 201), "$.teacherId")).longValue();
+    }
+
+    private static String collegeJson() {
+        int n = SEQUENCE.incrementAndGet();
+        return "{\"name\":\"Budget College " + n + "\",\"address\":\"Street " + n + "\"}";
+    }
+
+    private static String departmentJson(long collegeId) {
+        int n = SEQUENCE.incrementAndGet();
+        return "{\"name\":\"Budget Department " + n + "\",\"code\":\"BD" + n + "\",\"college\":{\"collegeId\":" + collegeId + "}}";
+    }
+
+    private static String studentJson(long departmentId) {
+        int n = SEQUENCE.incrementAndGet();
+        return "{\"name\":\"Budget Student " + n + "\",\"email\":\"budget" + n + "@example.com\","
+                + "\"department\":{\"departmentId\":" + departmentId + "}}";
+    }
+
+    private static String teacherJson(long departmentId) {
+        int n = SEQUENCE.incrementAndGet();
+        return "{\"name\":\"Budget Teacher " + n + "\",\"degree\":\"Ph.D.\",\"department\":{\"departmentId\":" + departmentId + "}}";
+    }
+
+    private String send(MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        return send(request, MediaType.APPLICATION_JSON_VALUE, expectedStatus);
+    }
+
+    // Performs the request, checks the status and returns the body
+    private String send(MockHttpServletRequestBuilder request, String contentType, int expectedStatus) throws Exception {
+        return mockMvc.perform(request.contentType(contentType))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.education;
+
+import com.example.education.entity.Department;
+import com.example.education.entity.Student;
+import com.example.education.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two transactions syncing the same new email: both MERGEs take NOT MATCHED, and the later one fails on the unique
+// email once the earlier commits. StudentMerger runs it again, so the second sync updates the row instead of a 409.
+@SpringBootTest
+class UpsertRaceTest {
+
+    private static final String EMAIL = "race@example.com";
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long studentId;
+
+    @AfterEach
+    void deleteStudent() {
+        if (studentId != null) {
+            studentService.deleteStudent(studentId);
+        }
+    }
+
+    @Test
+    void concurrentInsertOfSameEmailBecomesUpdate() throws Exception {
+        CountDownLatch firstMerged = new CountDownLatch(1);
+        CompletableFuture<Student> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Student inserted = studentService.upsertStudentByEmail(student("First Sync"));
+            firstMerged.countDown();
+            sleep(200); // Keeps the inserted row uncommitted while the second MERGE runs into it
+            return inserted;
+        }));
+        assertThat(firstMerged.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Student second = studentService.upsertStudentByEmail(student("Second Sync"));
+        Student inserted = first.get(10, TimeUnit.SECONDS);
+        studentId = inserted.getStudentId();
+
+        assertThat(inserted.getVersion()).isZero();
+        assertThat(second.getStudentId()).isEqualTo(studentId);
+        assertThat(second.getVersion()).isEqualTo(1L);
+        assertThat(studentService.getStudentById(studentId).getName()).isEqualTo("Second Sync");
+    }
+
+    private static Student student(String name) {
+        Department department = new Department();
+        department.setDepartmentId(201L); // Seeded by data.sql
+        return Student.builder().name(name).email(EMAIL).department(department).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}